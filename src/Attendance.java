@@ -1,11 +1,9 @@
 import javax.swing.JFrame;
 import com.toedter.calendar.JDateChooser;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.time.LocalDate;
-import java.time.LocalTime; // Ensured: Added missing import for LocalTime
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 
 // ransel 
@@ -13,7 +11,38 @@ import java.util.List;
 public class Attendance extends JFrame {
     private String empNo;
     private String empName;
-    private DefaultTableModel tableModel;
+    // Paged model: only offsets of matching rows are held, visible rows are read and formatted on demand
+    private final AttendanceTableModel tableModel = new AttendanceTableModel(new AttendanceStore(), false);
+    private SwingWorker<long[], Void> pendingLoad;
+    // Refreshes the table when the clock system appends punches for this employee
+    private final AttendanceTailer.Listener attendanceListener = new AttendanceTailer.Listener() {
+        @Override
+        public void onPunchesAppended(List<AttendanceTailer.Punch> punches) {
+            List<LocalDate> dates = new ArrayList<>();
+            for (AttendanceTailer.Punch punch : punches) {
+                if (String.valueOf(punch.empNo).equals(empNo)) {
+                    dates.add(punch.record.date);
+                }
+            }
+            if (dates.isEmpty()) {
+                return;
+            }
+            // The date choosers belong to the EDT, so the range is checked there
+            SwingUtilities.invokeLater(() -> {
+                for (LocalDate date : dates) {
+                    if (isInSelectedRange(date)) {
+                        loadAttendanceForSelectedRange();
+                        return;
+                    }
+                }
+            });
+        }
+
+        @Override
+        public void onFileReset() {
+            SwingUtilities.invokeLater(() -> loadAttendanceForSelectedRange());
+        }
+    };
 
     // Original constructor (can still be used if both empNo and empName are known)
     public Attendance(String empNo, String empName) {
@@ -42,9 +71,11 @@ public class Attendance extends JFrame {
         EmpID.setText("Emp ID: " + empNo);
         EmpName.setText("Name: " + empName);
         
-        // Initialize table model
-        tableModel = (DefaultTableModel) jTableAttendance.getModel();
-        tableModel.setRowCount(0); // Clear existing data
+        // Replace the designer's DefaultTableModel with the paged model
+        jTableAttendance.setModel(tableModel);
+        for (int i = 0; i < jTableAttendance.getColumnModel().getColumnCount(); i++) {
+            jTableAttendance.getColumnModel().getColumn(i).setResizable(false);
+        }
         
         // Set default date range (current month)
         LocalDate now = LocalDate.now();
@@ -53,6 +84,27 @@ public class Attendance extends JFrame {
 
         // Load attendance for the default date range immediately when the window opens
         loadAttendanceForSelectedRange();
+
+        // Keep the table live while the window is open
+        AttendanceTailer.shared().addListener(attendanceListener);
+    }
+
+    @Override
+    public void dispose() {
+        AttendanceTailer.shared().removeListener(attendanceListener);
+        super.dispose();
+    }
+
+    // Must run on the EDT, which owns the date choosers
+    private boolean isInSelectedRange(LocalDate date) {
+        java.util.Date startDate = startDateLabel.getDate();
+        java.util.Date endDate = endDateLabel.getDate();
+        if (startDate == null || endDate == null) {
+            return false;
+        }
+        LocalDate start = new java.sql.Date(startDate.getTime()).toLocalDate();
+        LocalDate end = new java.sql.Date(endDate.getTime()).toLocalDate();
+        return !date.isBefore(start) && !date.isAfter(end);
     }
 
     // Method to load attendance based on the currently selected date range in the JDateChoosers
@@ -69,90 +121,39 @@ public class Attendance extends JFrame {
         
         LocalDate start = new java.sql.Date(startDate.getTime()).toLocalDate();
         LocalDate end = new java.sql.Date(endDate.getTime()).toLocalDate();
-        
-        // Ensured: Get attendance records using AttendanceFileHandler, which accurately parses Time In/Out
-        List<AttendanceFileHandler.AttendanceRecord> records =
-            AttendanceFileHandler.getAttendanceRecords(empNo, start, end);
-        
-        // Clear table before populating with new data
-        tableModel.setRowCount(0);
-        
-        // Define formatters for displaying date and time in the table
-        DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("MM/dd/yyyy");
-        DateTimeFormatter timeFormat = DateTimeFormatter.ofPattern("HH:mm");
-        
-        if (records.isEmpty()) {
-            // Display a message if no records are found for the given range/employee
-            tableModel.addRow(new Object[]{"", "", "", "No records found for this period", ""});
-        } else {
-            for (AttendanceFileHandler.AttendanceRecord record : records) {
-                String status = calculateStatus(record.timeIn, record.timeOut);
-                tableModel.addRow(new Object[]{
-                    record.date.format(dateFormat),
-                    record.timeIn.format(timeFormat), // Ensured: Time In is displayed correctly
-                    record.timeOut.format(timeFormat), // Ensured: Time Out is displayed correctly
-                    status,
-                    "" // Empty remarks for now, can be expanded later
-                });
-            }
+
+        // Scan for matching rows off the EDT; the table then pages in only the rows it displays
+        if (pendingLoad != null) {
+            pendingLoad.cancel(false);
         }
+        pendingLoad = new SwingWorker<long[], Void>() {
+            @Override
+            protected long[] doInBackground() throws Exception {
+                return tableModel.findRows(empNo, start, end);
+            }
+
+            @Override
+            protected void done() {
+                if (isCancelled()) {
+                    return;
+                }
+                try {
+                    tableModel.setRows(get());
+                } catch (Exception e) {
+                    System.err.println("Failed to load attendance records: " + e.getMessage());
+                    tableModel.setRows(new long[0]);
+                }
+            }
+        };
+        pendingLoad.execute();
     }
     
     // This method is the action listener for the "Check Attendance" button.
     // It simply triggers the re-loading of attendance for the currently selected date range.
     private void checkAttendanceButtonActionPerformed(java.awt.event.ActionEvent evt) {
-        // Retrieve selected start and end dates from the date pickers
-        java.util.Date startDate = startDateLabel.getDate();
-        java.util.Date endDate = endDateLabel.getDate();
-
-        if (startDate == null || endDate == null) {
-            JOptionPane.showMessageDialog(this, "Please select both start and end dates to view attendance.",
-                    "Selection Error", JOptionPane.ERROR_MESSAGE);
-            return;
-        }
-
-        // Convert to LocalDate format
-        LocalDate start = new java.sql.Date(startDate.getTime()).toLocalDate();
-        LocalDate end = new java.sql.Date(endDate.getTime()).toLocalDate();
-
-        // Fetch attendance records for the employee
-        List<AttendanceFileHandler.AttendanceRecord> records = AttendanceFileHandler.getEmployeeAttendance(empNo);
-
-        // Clear table before populating with new data
-        tableModel.setRowCount(0);
-
-        DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("MM/dd/yyyy");
-        DateTimeFormatter timeFormat = DateTimeFormatter.ofPattern("H:mm");
-
-        if (records.isEmpty()) {
-            tableModel.addRow(new Object[]{"", "", "", "No records found for this period", ""});
-        } else {
-            for (AttendanceFileHandler.AttendanceRecord record : records) {
-                // Filter records to match the selected date range
-                if (!record.date.isBefore(start) && !record.date.isAfter(end)) {
-                    tableModel.addRow(new Object[]{
-                        record.date.format(dateFormat),
-                        record.timeIn.format(timeFormat),
-                        record.timeOut.format(timeFormat),
-                        calculateStatus(record.timeIn, record.timeOut),
-                        "" // Empty remarks for now, can be expanded later
-                    });
-                }
-            }
-        }
+        loadAttendanceForSelectedRange();
     }                                                 
 
-    private String calculateStatus(LocalTime timeIn, LocalTime timeOut) {
-        // Ensured: Accessing public static final fields from AttendanceFileHandler for consistency
-        if (timeIn.isAfter(AttendanceFileHandler.GRACE_PERIOD_END)) {
-            return "Late";
-        } else if (timeOut.isBefore(AttendanceFileHandler.STANDARD_TIME_OUT)) {
-            return "Early Out";
-        } else {
-            return "Present";
-        }
-    }
-
     /**
      * This method is called from within the constructor to initialize the form.
      * WARNING: Do NOT modify this code. The content of this method is always
@@ -9,12 +9,19 @@
  */
 
 import com.opencsv.CSVReader;
+import com.opencsv.CSVWriter;
 import com.opencsv.exceptions.CsvValidationException;
 import java.io.FileReader;
+import java.io.FileWriter;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
@@ -22,15 +29,31 @@ import java.util.Locale;
 
 public class AttendanceFileHandler {
 
-    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
-    // FIXED: Corrected pattern to "MMMMӱ" for month and year, based on "January 2023" example.
-    private static final DateTimeFormatter MONTH_YEAR_FORMAT = DateTimeFormatter.ofPattern("MMMMӱ", Locale.ENGLISH);
+    // Strict, so 02/30 is rejected rather than moved to 02/29, the same as AttendanceRowParser
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/uuuu")
+        .withResolverStyle(ResolverStyle.STRICT);
+    // Log In / Log Out columns use 1-digit hours before 10:00 (e.g. "8:59"), which ISO parsing rejects
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("H:mm");
+    // Month and year as shown in the UI, e.g. "January 2023"; parsed once at the boundary by parseMonthYear
+    private static final DateTimeFormatter MONTH_YEAR_FORMAT = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.ENGLISH);
     // Changed access modifiers from private to public for external access
     public static final LocalTime STANDARD_TIME_IN = LocalTime.of(8, 0);
     public static final LocalTime GRACE_PERIOD_END = LocalTime.of(8, 10);
     public static final LocalTime STANDARD_TIME_OUT = LocalTime.of(17, 0);
     // FIXED: Corrected CSV_PATH assuming project root is MotorPHPayrollCP2
-    private static final String CSV_PATH = "src/data/employee_attendance.csv";
+    static final String CSV_PATH = "src/data/employee_attendance.csv";
+
+    /**
+     * Parses a month and year such as "January 2023". Callers with a `YearMonth` or {@link PayPeriod}
+     * should use the typed overloads below instead of formatting and re-parsing strings.
+     *
+     * @param monthYear The month name and four-digit year.
+     * @return The parsed month.
+     * @throws DateTimeParseException if the text is not in that format.
+     */
+    public static YearMonth parseMonthYear(String monthYear) {
+        return YearMonth.parse(monthYear.trim(), MONTH_YEAR_FORMAT);
+    }
 
     /**
      * Calculates total worked hours and overtime for a given employee and month.
@@ -40,12 +63,34 @@ public class AttendanceFileHandler {
      * @return A map containing "workedHours" and "overtimeHours".
      */
     public static MonthlyHours acomputeMonthlyHoursAndOT(int empNo, String targetMonthYear) {
+        try {
+            return acomputeMonthlyHoursAndOT(empNo, parseMonthYear(targetMonthYear));
+        } catch (DateTimeParseException e) {
+            System.err.println("Invalid month/year format. Please use 'MMMM yyyy'. Example: 'January 2023'. Error: " + e.getMessage());
+            return new MonthlyHours(0, 0);
+        }
+    }
+
+    /**
+     * Calculates total worked hours and overtime for a given employee and month.
+     */
+    public static MonthlyHours acomputeMonthlyHoursAndOT(int empNo, YearMonth yearMonth) {
+        return computeHoursAndOT(empNo, yearMonth.atDay(1), yearMonth.atEndOfMonth());
+    }
+
+    /**
+     * Calculates total worked hours and overtime for a given employee and semi-monthly cutoff.
+     */
+    public static MonthlyHours acomputeMonthlyHoursAndOT(int empNo, PayPeriod period) {
+        return computeHoursAndOT(empNo, period.getStart(), period.getEnd());
+    }
+
+    private static MonthlyHours computeHoursAndOT(int empNo, LocalDate startDate, LocalDate endDate) {
         double totalMinutes = 0;
         double otMinutes = 0;
 
         try {
-            YearMonth yearMonth = YearMonth.parse(targetMonthYear, MONTH_YEAR_FORMAT);
-            List<AttendanceRecord> records = getAttendanceRecords(String.valueOf(empNo), yearMonth.atDay(1), yearMonth.atEndOfMonth());
+            List<AttendanceRecord> records = getAttendanceRecords(String.valueOf(empNo), startDate, endDate);
 
             for (AttendanceRecord record : records) {
                 // Sundays are automatically excluded
@@ -68,9 +113,6 @@ public class AttendanceFileHandler {
                     totalMinutes += ChronoUnit.MINUTES.between(record.timeIn, record.timeOut);
                 }
             }
-        } catch (DateTimeParseException e) {
-            // Updated error message to reflect the new expected format "MMMMӱ"
-            System.err.println("Invalid month/year format. Please use 'MMMMӱ'. Example: 'January 2023'. Error: " + e.getMessage());
         } catch (Exception e) {
             System.err.println("Error processing attendance records: " + e.getMessage());
         }
@@ -86,19 +128,31 @@ public class AttendanceFileHandler {
      * @return The number of absent days, rounded up.
      */
     public static int computeAbsentDays(int empNo, String targetMonthYear) {
-        MonthlyHours monthlyHours = acomputeMonthlyHoursAndOT(empNo, targetMonthYear);
-        double workedHours = monthlyHours.getWorkedHours();
-
-        YearMonth yearMonth = YearMonth.parse(targetMonthYear, MONTH_YEAR_FORMAT);
-        int workdays = 0;
-        for (int day = 1; day <= yearMonth.lengthOfMonth(); day++) {
-            DayOfWeek dayOfWeek = yearMonth.atDay(day).getDayOfWeek();
-            // Sundays are automatically excluded from workdays
-            if (dayOfWeek != DayOfWeek.SUNDAY) {
-                workdays++;
-            }
+        try {
+            return computeAbsentDays(empNo, parseMonthYear(targetMonthYear));
+        } catch (DateTimeParseException e) {
+            System.err.println("Invalid month/year format. Please use 'MMMM yyyy'. Example: 'January 2023'. Error: " + e.getMessage());
+            return 0;
         }
+    }
+
+    /**
+     * Computes how many full working days are missing in a month.
+     */
+    public static int computeAbsentDays(int empNo, YearMonth yearMonth) {
+        // Sundays and holidays are excluded from workdays (precomputed per month by WorkCalendar)
+        return absentDays(acomputeMonthlyHoursAndOT(empNo, yearMonth).getWorkedHours(), WorkCalendar.workdayCount(yearMonth));
+    }
+
+    /**
+     * Computes how many full working days are missing in a semi-monthly cutoff.
+     */
+    public static int computeAbsentDays(int empNo, PayPeriod period) {
+        return absentDays(acomputeMonthlyHoursAndOT(empNo, period).getWorkedHours(),
+            WorkCalendar.workdayCount(period.getStart(), period.getEnd()));
+    }
 
+    private static int absentDays(double workedHours, int workdays) {
         double requiredHours = workdays * 8.0; // Compares actual hours vs. 40-hour workweek standard (8 hours/day)
         double missingHours = Math.max(0, requiredHours - workedHours);
 
@@ -115,11 +169,33 @@ public class AttendanceFileHandler {
      * @return The total number of late minutes.
      */
     public static int computeLateMinutes(int empNo, String targetMonthYear) {
+        try {
+            return computeLateMinutes(empNo, parseMonthYear(targetMonthYear));
+        } catch (DateTimeParseException e) {
+            System.err.println("Invalid month/year format. Please use 'MMMM yyyy'. Example: 'January 2023'. Error: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Calculates total late minutes in a month.
+     */
+    public static int computeLateMinutes(int empNo, YearMonth yearMonth) {
+        return lateMinutes(empNo, yearMonth.atDay(1), yearMonth.atEndOfMonth());
+    }
+
+    /**
+     * Calculates total late minutes in a semi-monthly cutoff.
+     */
+    public static int computeLateMinutes(int empNo, PayPeriod period) {
+        return lateMinutes(empNo, period.getStart(), period.getEnd());
+    }
+
+    private static int lateMinutes(int empNo, LocalDate startDate, LocalDate endDate) {
         int lateMinutes = 0;
 
         try {
-            YearMonth yearMonth = YearMonth.parse(targetMonthYear, MONTH_YEAR_FORMAT);
-            List<AttendanceRecord> records = getAttendanceRecords(String.valueOf(empNo), yearMonth.atDay(1), yearMonth.atEndOfMonth());
+            List<AttendanceRecord> records = getAttendanceRecords(String.valueOf(empNo), startDate, endDate);
 
             for (AttendanceRecord record : records) {
                 // Sundays excluded from late counts
@@ -161,25 +237,18 @@ public class AttendanceFileHandler {
                 // Ensure enough columns and check empNo (EmpID: line[0], Date: line[3], TimeIn: line[4], TimeOut: line[5])
                 if (line.length >= 6 && line[0].equals(empNo)) {
                     try {
-                        LocalDate recordDate = LocalDate.parse(line[3], DATE_FORMAT);
-                        // FIXED: Added .trim() to ensure no leading/trailing whitespace affects parsing
-                        // This line directly reads the time from the CSV.
-                        LocalTime timeIn = LocalTime.parse(line[4].trim());
-                        LocalTime timeOut = LocalTime.parse(line[5].trim());
+                        // Shared with the bulk importer so both accept exactly the same rows
+                        AttendanceRecord record = parseRecord(line);
 
                         // --- START DIAGNOSTIC LOGGING ---
                         System.out.println("DEBUG: Employee " + empNo + " on " + line[3] +
                                            " - Raw Time In string: '" + line[4] +
-                                           "', Parsed Time In: " + timeIn);
+                                           "', Parsed Time In: " + record.timeIn);
                         // --- END DIAGNOSTIC LOGGING ---
 
                         // Gets all attendance entries for specific employee ID and custom date range (start → end date)
-                        if (!recordDate.isBefore(startDate) && !recordDate.isAfter(endDate)) {
-                            records.add(new AttendanceRecord(
-                                recordDate,
-                                timeIn,
-                                timeOut
-                            ));
+                        if (!record.date.isBefore(startDate) && !record.date.isAfter(endDate)) {
+                            records.add(record);
                         }
                     } catch (DateTimeParseException e) {
                         System.err.println("Skipping invalid date/time format in CSV for employee " + empNo + " on line: " + String.join(",", line) + ". Error: " + e.getMessage());
@@ -192,6 +261,81 @@ public class AttendanceFileHandler {
         return records; // Returns: Date + Clock-in/out times
     }
 
+    /**
+     * Parses the Date, Log In and Log Out columns of one attendance CSV row.
+     * Used by every reader and by {@link AttendanceImporter}, so a row is either valid everywhere or nowhere.
+     *
+     * @param line The CSV columns (EmpID: line[0], Date: line[3], TimeIn: line[4], TimeOut: line[5]).
+     * @return The parsed attendance record.
+     * @throws DateTimeParseException if the date or either time is malformed.
+     */
+    public static AttendanceRecord parseRecord(String[] line) {
+        LocalDate recordDate = LocalDate.parse(line[3].trim(), DATE_FORMAT);
+        LocalTime timeIn = LocalTime.parse(line[4].trim(), TIME_FORMAT);
+        LocalTime timeOut = LocalTime.parse(line[5].trim(), TIME_FORMAT);
+        return new AttendanceRecord(recordDate, timeIn, timeOut);
+    }
+
+    /**
+     * Appends one punch to the attendance CSV after checking it against {@link AttendanceIndex#shared()}.
+     * A punch for an employee/day that is already recorded is handled by the index's merge policy:
+     * rejected punches leave the file untouched, merged punches rewrite the existing row.
+     *
+     * @param empNo The employee's ID.
+     * @param lastName The employee's last name.
+     * @param firstName The employee's first name.
+     * @param record The date and log-in/log-out times to record.
+     * @return What the index did with the punch, or null if the file could not be written.
+     */
+    public static synchronized AttendanceIndex.Outcome appendRecord(int empNo, String lastName, String firstName, AttendanceRecord record) {
+        AttendanceIndex index = AttendanceIndex.shared();
+        AttendanceIndex.Outcome outcome = index.offer(empNo, record);
+        try {
+            if (outcome == AttendanceIndex.Outcome.ADDED) {
+                boolean needsLeadingNewline = !endsWithNewline(Paths.get(CSV_PATH));
+                try (FileWriter fileWriter = new FileWriter(CSV_PATH, true);
+                     CSVWriter writer = new CSVWriter(fileWriter, ',', CSVWriter.DEFAULT_QUOTE_CHARACTER,
+                         CSVWriter.DEFAULT_ESCAPE_CHARACTER, "\n")) {
+                    if (needsLeadingNewline) {
+                        fileWriter.write('\n'); // The file may not end with a line break
+                    }
+                    writer.writeNext(new String[]{
+                        String.valueOf(empNo), lastName, firstName, record.date.format(DATE_FORMAT),
+                        record.timeIn.format(TIME_FORMAT), record.timeOut.format(TIME_FORMAT)
+                    }, false); // Quote only the fields that need it, like the rest of the file
+                }
+            } else if (outcome == AttendanceIndex.Outcome.REPLACED) {
+                index.compact(Paths.get(CSV_PATH));
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to append attendance record: " + e.getMessage());
+            try {
+                index.reload(Paths.get(CSV_PATH)); // Forget the punch that never reached the file
+            } catch (IOException reloadError) {
+                System.err.println("Failed to reload attendance index: " + reloadError.getMessage());
+            }
+            return null;
+        }
+        PayrollCache cache = PayrollCache.sharedIfLoaded();
+        if (cache != null && (outcome == AttendanceIndex.Outcome.ADDED || outcome == AttendanceIndex.Outcome.REPLACED)) {
+            cache.attendanceChanged(empNo, record.date);
+        }
+        return outcome;
+    }
+
+    /**
+     * Checks whether a file is empty, missing, or ends with a line break, i.e. whether rows can be appended directly.
+     */
+    static boolean endsWithNewline(Path file) throws IOException {
+        if (!Files.exists(file) || Files.size(file) == 0) {
+            return true;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r")) {
+            raf.seek(raf.length() - 1);
+            return raf.read() == '\n';
+        }
+    }
+
     /**
      * Retrieves the full name of an employee from the attendance CSV file given their employee number.
      * This method is added here to avoid creating a new file, as requested.
@@ -247,23 +391,18 @@ public class AttendanceFileHandler {
             return overtimeHours;
         }
     }
+
     public static List<AttendanceFileHandler.AttendanceRecord> getEmployeeAttendance(String empNo) {
         List<AttendanceFileHandler.AttendanceRecord> attendanceRecords = new ArrayList<>();
 
         try (CSVReader reader = new CSVReader(new FileReader(CSV_PATH))) {
             reader.skip(1); // Skip header row
             String[] line;
-            DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("MM/dd/yyyy");
-            DateTimeFormatter timeFormat = DateTimeFormatter.ofPattern("H:mm"); // Ensures compatibility with 1-digit hours
 
             while ((line = reader.readNext()) != null) {
                 if (line.length >= 6 && line[0].equals(empNo)) {
-                    LocalDate recordDate = LocalDate.parse(line[3].trim(), dateFormat);
-                    LocalTime timeIn = LocalTime.parse(line[4].trim(), timeFormat);
-                    LocalTime timeOut = LocalTime.parse(line[5].trim(), timeFormat);
-
                     // Store validated records
-                    attendanceRecords.add(new AttendanceFileHandler.AttendanceRecord(recordDate, timeIn, timeOut));
+                    attendanceRecords.add(parseRecord(line));
                 }
             }
         } catch (Exception e) {
@@ -0,0 +1,379 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * `AttendanceImporter` streams biometric attendance exports into `employee_attendance.csv`.
+ * Rows flow through three stages (parse → validate → write) connected by small bounded queues,
+ * so memory stays constant no matter how large the export is and a slow disk throttles the reader.
+ * Rows that {@link AttendanceFileHandler#parseRecord(String[])} would reject, and punches the
+ * {@link AttendanceIndex} flags as duplicates of an existing employee/day, are copied to a
+ * quarantine file instead of the attendance CSV.
+ */
+public class AttendanceImporter {
+    // Rows handed between stages per queue slot; batching keeps queue hand-off cost negligible.
+    private static final int BATCH_SIZE = 8192;
+    // Batches allowed to wait between two stages. Bounds memory to roughly 2 * capacity * BATCH_SIZE rows.
+    private static final int QUEUE_CAPACITY = 4;
+    private static final int IO_BUFFER_SIZE = 1 << 20;
+    // Marks the end of the stream on a queue.
+    private static final Batch END = new Batch(0);
+
+    // Per-row verdicts set by the validate stage.
+    private static final byte ROW_APPEND = 0;
+    private static final byte ROW_MALFORMED = 1;
+    private static final byte ROW_DUPLICATE = 2;
+    private static final byte ROW_MERGED = 3; // Folded into an existing row by the merge policy
+
+    /**
+     * Receives progress updates from the write stage after each batch is written.
+     */
+    public interface ProgressListener {
+        void onProgress(long rowsRead, long rowsImported, long rowsRejected);
+    }
+
+    /**
+     * Imports an export into the default attendance CSV, checking punches against {@link AttendanceIndex#shared()}.
+     * Rejected rows go to `<source>.rejected.csv`.
+     *
+     * @param sourcePath Path of the biometric export (same column layout as `employee_attendance.csv`).
+     * @param listener Optional progress listener, may be null.
+     * @return Row counts for the finished import.
+     * @throws IOException if the export cannot be read or the attendance file cannot be written.
+     */
+    public static ImportResult importFile(String sourcePath, ProgressListener listener) throws IOException {
+        return importFile(Paths.get(sourcePath), Paths.get(AttendanceFileHandler.CSV_PATH),
+            Paths.get(sourcePath + ".rejected.csv"), AttendanceIndex.shared(), listener);
+    }
+
+    /**
+     * Imports an export into `target`, indexing the current contents of `target` first so
+     * duplicates are rejected ({@link AttendanceIndex.MergePolicy#REJECT}).
+     *
+     * @see #importFile(Path, Path, Path, AttendanceIndex, ProgressListener)
+     */
+    public static ImportResult importFile(Path source, Path target, Path quarantine, ProgressListener listener) throws IOException {
+        return importFile(source, target, quarantine, AttendanceIndex.load(target, AttendanceIndex.MergePolicy.REJECT), listener);
+    }
+
+    /**
+     * Imports an export, appending valid rows to `target` and malformed or duplicate rows to `quarantine`.
+     * The quarantine file is only created when at least one row is rejected. When the index's merge
+     * policy changes a punch that is already in `target`, the file is compacted once at the end.
+     *
+     * @param source The biometric export to read.
+     * @param target The attendance CSV to append to.
+     * @param quarantine The file receiving rejected rows (with the export's header, if any).
+     * @param index The index describing the current contents of `target`; updated with every imported punch,
+     *              and rebuilt from `target` if the import fails.
+     * @param listener Optional progress listener, may be null.
+     * @return Row counts for the finished import.
+     * @throws IOException if reading or writing fails in any stage.
+     */
+    public static ImportResult importFile(Path source, Path target, Path quarantine, AttendanceIndex index,
+                                          ProgressListener listener) throws IOException {
+        BlockingQueue<Batch> parsed = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<Batch> validated = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        ImportRun pipeline = new ImportRun();
+
+        Thread parseStage = new Thread(() -> pipeline.run(() -> parse(source, parsed, pipeline)), "attendance-import-parse");
+        Thread validateStage = new Thread(() -> pipeline.run(() -> validate(parsed, validated, index, pipeline)), "attendance-import-validate");
+        parseStage.setDaemon(true);
+        validateStage.setDaemon(true);
+        parseStage.start();
+        validateStage.start();
+
+        ImportResult result;
+        try {
+            try {
+                result = write(validated, target, quarantine, pipeline, listener);
+            } finally {
+                // Unblocks the upstream stages if the writer stopped early.
+                parseStage.interrupt();
+                validateStage.interrupt();
+            }
+            pipeline.rethrow();
+            if (result.getRowsMerged() > 0) {
+                index.compact(target); // Rewrite the rows whose interval the merge policy changed
+            }
+        } catch (IOException | RuntimeException e) {
+            pipeline.fail(e);
+            rollBack(index, target, parseStage, validateStage);
+            throw e;
+        }
+        PayrollCache cache = PayrollCache.sharedIfLoaded();
+        if (cache != null && (result.getRowsImported() > 0 || result.getRowsMerged() > 0)) {
+            cache.attendanceReset(); // Bulk change: cheaper to drop everything than to track each row
+        }
+        return result;
+    }
+
+    /**
+     * After a failed import the index holds punches the validate stage offered but the writer never wrote.
+     * Waits for the stages to stop, so none is still offering, then rebuilds the index from what actually
+     * reached `target`.
+     */
+    private static void rollBack(AttendanceIndex index, Path target, Thread... stages) {
+        boolean interrupted = Thread.interrupted(); // join() would return at once on a cancelled import
+        try {
+            for (Thread stage : stages) {
+                stage.join();
+            }
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+        try {
+            index.reload(target);
+        } catch (IOException e) {
+            System.err.println("Failed to reload attendance index after a failed import: " + e.getMessage());
+        }
+        PayrollCache cache = PayrollCache.sharedIfLoaded();
+        if (cache != null) {
+            cache.attendanceReset(); // Some rows may have been written before the failure
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Stage 1: reads raw lines into batches. The header (first line not starting with a digit) is kept aside.
+     */
+    private static void parse(Path source, BlockingQueue<Batch> out, ImportRun pipeline) throws IOException, InterruptedException {
+        try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (line != null && (line.isEmpty() || !Character.isDigit(line.charAt(0)))) {
+                pipeline.header = line; // Skip header row
+                line = reader.readLine();
+            }
+
+            Batch batch = new Batch(BATCH_SIZE);
+            while (line != null && !pipeline.failed()) {
+                if (!line.isEmpty()) {
+                    batch.lines[batch.size++] = line;
+                    if (batch.size == BATCH_SIZE) {
+                        out.put(batch);
+                        batch = new Batch(BATCH_SIZE);
+                    }
+                }
+                line = reader.readLine();
+            }
+            if (batch.size > 0) {
+                out.put(batch);
+            }
+        } finally {
+            putEnd(out, pipeline);
+        }
+    }
+
+    /**
+     * Stage 2: parses every row of a batch and checks it against the index (O(1) per punch).
+     */
+    private static void validate(BlockingQueue<Batch> in, BlockingQueue<Batch> out, AttendanceIndex index,
+                                 ImportRun pipeline) throws InterruptedException {
+        AttendanceRowParser parser = new AttendanceRowParser();
+        try {
+            Batch batch;
+            while ((batch = in.take()) != END && !pipeline.failed()) {
+                for (int i = 0; i < batch.size; i++) {
+                    if (!parser.parse(batch.lines[i])) {
+                        batch.status[i] = ROW_MALFORMED;
+                        continue;
+                    }
+                    switch (index.offer(parser.empNo, parser.epochDay, parser.inMinute, parser.outMinute)) {
+                        case ADDED:
+                            batch.status[i] = ROW_APPEND;
+                            break;
+                        case REPLACED:
+                            batch.status[i] = ROW_MERGED;
+                            break;
+                        default:
+                            batch.status[i] = ROW_DUPLICATE;
+                    }
+                }
+                out.put(batch);
+            }
+        } finally {
+            putEnd(out, pipeline);
+        }
+    }
+
+    /**
+     * Stage 3 (runs on the calling thread): appends valid rows to the attendance CSV and rejected rows to quarantine.
+     */
+    private static ImportResult write(BlockingQueue<Batch> in, Path target, Path quarantine, ImportRun pipeline,
+                                      ProgressListener listener) throws IOException {
+        long read = 0;
+        long imported = 0;
+        long rejected = 0;
+        long duplicates = 0;
+        long merged = 0;
+        BufferedWriter rejectWriter = null;
+
+        // The existing file may not end with a line break; add one before the first appended row.
+        boolean needsLeadingNewline = !AttendanceFileHandler.endsWithNewline(target);
+        try (BufferedWriter writer = new BufferedWriter(Files.newBufferedWriter(target, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), IO_BUFFER_SIZE)) {
+            Batch batch;
+            while ((batch = takeInterruptibly(in)) != END) {
+                for (int i = 0; i < batch.size; i++) {
+                    byte status = batch.status[i];
+                    if (status == ROW_MERGED) {
+                        merged++;
+                    } else if (status == ROW_APPEND) {
+                        if (needsLeadingNewline) {
+                            writer.write('\n');
+                            needsLeadingNewline = false;
+                        }
+                        writer.write(batch.lines[i]);
+                        writer.write('\n');
+                        imported++;
+                    } else {
+                        if (rejectWriter == null) {
+                            rejectWriter = new BufferedWriter(Files.newBufferedWriter(quarantine, StandardCharsets.UTF_8), IO_BUFFER_SIZE);
+                            if (pipeline.header != null) {
+                                rejectWriter.write(pipeline.header);
+                                rejectWriter.write('\n');
+                            }
+                        }
+                        rejectWriter.write(batch.lines[i]);
+                        rejectWriter.write('\n');
+                        if (status == ROW_DUPLICATE) {
+                            duplicates++;
+                        } else {
+                            rejected++;
+                        }
+                    }
+                }
+                read += batch.size;
+                if (listener != null) {
+                    listener.onProgress(read, imported, rejected + duplicates);
+                }
+            }
+        } finally {
+            if (rejectWriter != null) {
+                rejectWriter.close();
+            }
+        }
+        return new ImportResult(read, imported, rejected, duplicates, merged);
+    }
+
+    private static void putEnd(BlockingQueue<Batch> queue, ImportRun pipeline) throws InterruptedException {
+        if (pipeline.failed()) {
+            queue.offer(END); // Downstream is shutting down; never block on a full queue here
+        } else {
+            queue.put(END);
+        }
+    }
+
+    private static Batch takeInterruptibly(BlockingQueue<Batch> queue) throws IOException {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Attendance import interrupted", e);
+        }
+    }
+
+    // A fixed-size block of rows passed between stages.
+    private static final class Batch {
+        final String[] lines;
+        final byte[] status;
+        int size;
+
+        Batch(int capacity) {
+            this.lines = new String[capacity];
+            this.status = new byte[capacity];
+        }
+    }
+
+    // Shared state of one import: the export header and the first failure raised by any stage.
+    private static final class ImportRun {
+        volatile String header;
+        private volatile Throwable failure;
+
+        interface StageBody {
+            void run() throws Exception;
+        }
+
+        void run(StageBody body) {
+            try {
+                body.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                fail(e);
+            }
+        }
+
+        void fail(Throwable t) {
+            if (failure == null) {
+                failure = t;
+            }
+        }
+
+        boolean failed() {
+            return failure != null;
+        }
+
+        void rethrow() throws IOException {
+            Throwable t = failure;
+            if (t instanceof IOException) {
+                throw (IOException) t;
+            }
+            if (t != null) {
+                throw new IOException("Attendance import failed: " + t.getMessage(), t);
+            }
+        }
+    }
+
+    /**
+     * Row counts for a finished import.
+     */
+    public static class ImportResult {
+
+        private final long rowsRead;
+        private final long rowsImported;
+        private final long rowsRejected;
+        private final long rowsDuplicate;
+        private final long rowsMerged;
+
+        public ImportResult(long rowsRead, long rowsImported, long rowsRejected, long rowsDuplicate, long rowsMerged) {
+            this.rowsRead = rowsRead;
+            this.rowsImported = rowsImported;
+            this.rowsRejected = rowsRejected;
+            this.rowsDuplicate = rowsDuplicate;
+            this.rowsMerged = rowsMerged;
+        }
+
+        public long getRowsRead() {
+            return rowsRead;
+        }
+
+        public long getRowsImported() {
+            return rowsImported;
+        }
+
+        /** Malformed rows sent to quarantine. */
+        public long getRowsRejected() {
+            return rowsRejected;
+        }
+
+        /** Duplicate or conflicting punches sent to quarantine. */
+        public long getRowsDuplicate() {
+            return rowsDuplicate;
+        }
+
+        /** Punches folded into an existing row by the index's merge policy. */
+        public long getRowsMerged() {
+            return rowsMerged;
+        }
+    }
+}
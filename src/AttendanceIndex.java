@@ -0,0 +1,355 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * `AttendanceIndex` remembers which (employee number, day) pairs already have a punch in the attendance CSV.
+ * Keys are packed into one primitive `long` and kept in an open-addressing hash table, so every
+ * lookup or insert is O(1) with no per-punch allocation. The stored value is the punch interval,
+ * which lets the index tell exact duplicates from overlapping or separate same-day punches and
+ * resolve them with a {@link MergePolicy}.
+ */
+public class AttendanceIndex {
+    private static final float LOAD_FACTOR = 0.5f;
+    private static final int EMPTY_KEY = 0; // Employee numbers are positive, so a real key is never 0
+    private static final int WRITTEN_FLAG = 0x80000000; // Marks keys already emitted during compaction
+
+    private static AttendanceIndex shared;
+
+    /**
+     * How a second punch for an employee/day that already has one is handled.
+     */
+    public enum MergePolicy {
+        /** Keep the existing punch and reject the new one. */
+        REJECT,
+        /** Replace the existing punch with the new one. */
+        KEEP_LAST,
+        /** Keep one punch spanning the earliest log-in and the latest log-out of both. */
+        MERGE_SPAN
+    }
+
+    /**
+     * What {@link #offer} did with a punch.
+     */
+    public enum Outcome {
+        /** First punch for this employee/day; it was stored. */
+        ADDED,
+        /** Identical to the stored punch; nothing changed. */
+        DUPLICATE,
+        /** Conflicts with the stored punch and the policy kept the stored one. */
+        REJECTED,
+        /** Conflicts with the stored punch and the stored interval was changed; the CSV needs {@link #compact}. */
+        REPLACED
+    }
+
+    private final MergePolicy policy;
+    private long[] keys;
+    private int[] values; // (inMinute << 16) | outMinute
+    private int size;
+    private int mask;
+    private int overlaps;
+    private int sameDayPunches;
+
+    public AttendanceIndex(MergePolicy policy) {
+        this(policy, 1024);
+    }
+
+    public AttendanceIndex(MergePolicy policy, int expectedPunches) {
+        this.policy = policy;
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedPunches / LOAD_FACTOR)) - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Returns the process-wide index over the default attendance CSV, loading it on first use.
+     * Conflicts default to {@link MergePolicy#REJECT}.
+     */
+    public static synchronized AttendanceIndex shared() {
+        if (shared == null) {
+            try {
+                shared = load(Paths.get(AttendanceFileHandler.CSV_PATH), MergePolicy.REJECT);
+            } catch (IOException e) {
+                System.err.println("Failed to index attendance CSV: " + e.getMessage());
+                shared = new AttendanceIndex(MergePolicy.REJECT);
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Returns the process-wide index if something already loaded it, or null, without triggering a load.
+     */
+    public static synchronized AttendanceIndex sharedIfLoaded() {
+        return shared;
+    }
+
+    /**
+     * Builds an index from an attendance CSV. Duplicates already in the file are resolved with `policy`
+     * and counted; call {@link #compact} afterwards to remove them from the file.
+     *
+     * @param file The attendance CSV (first line is the header).
+     * @param policy The merge policy for conflicting punches.
+     * @return The populated index.
+     * @throws IOException if the file cannot be read.
+     */
+    public static AttendanceIndex load(Path file, MergePolicy policy) throws IOException {
+        AttendanceIndex index = new AttendanceIndex(policy, Files.exists(file) ? (int) Math.min(Integer.MAX_VALUE / 4, Files.size(file) / 40) : 1024);
+        if (!Files.exists(file)) {
+            return index;
+        }
+        AttendanceRowParser parser = new AttendanceRowParser();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            reader.readLine(); // Skip header row
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (parser.parse(line)) {
+                    index.offer(parser.empNo, parser.epochDay, parser.inMinute, parser.outMinute);
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Rebuilds this index in place from `file`, keeping its merge policy. Used after a failed write to drop
+     * punches that were offered but never reached the file.
+     *
+     * @param file The attendance CSV this index describes.
+     * @throws IOException if the file cannot be read; the index is left unchanged.
+     */
+    public synchronized void reload(Path file) throws IOException {
+        AttendanceIndex fresh = load(file, policy);
+        keys = fresh.keys;
+        values = fresh.values;
+        size = fresh.size;
+        mask = fresh.mask;
+        overlaps = fresh.overlaps;
+        sameDayPunches = fresh.sameDayPunches;
+    }
+
+    public MergePolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Records a punch, resolving any conflict with the stored punch for the same employee/day.
+     *
+     * @param empNo The employee's ID.
+     * @param epochDay The punch date as {@link LocalDate#toEpochDay()}.
+     * @param inMinute Log-in time in minutes after midnight.
+     * @param outMinute Log-out time in minutes after midnight.
+     * @return What was done with the punch.
+     */
+    public synchronized Outcome offer(int empNo, int epochDay, int inMinute, int outMinute) {
+        long key = key(empNo, epochDay);
+        int value = pack(inMinute, outMinute);
+        int slot = slotOf(key);
+
+        if (keys[slot] == EMPTY_KEY) {
+            keys[slot] = key;
+            values[slot] = value;
+            if (++size > keys.length * LOAD_FACTOR) {
+                grow();
+            }
+            return Outcome.ADDED;
+        }
+
+        int stored = values[slot] & ~WRITTEN_FLAG;
+        if (stored == value) {
+            return Outcome.DUPLICATE;
+        }
+
+        int storedIn = stored >>> 16;
+        int storedOut = stored & 0xFFFF;
+        if (inMinute < storedOut && storedIn < outMinute) {
+            overlaps++;
+        } else {
+            sameDayPunches++;
+        }
+
+        switch (policy) {
+            case KEEP_LAST:
+                values[slot] = value | (values[slot] & WRITTEN_FLAG);
+                return Outcome.REPLACED;
+            case MERGE_SPAN:
+                int merged = pack(Math.min(storedIn, inMinute), Math.max(storedOut, outMinute));
+                if (merged == stored) {
+                    return Outcome.REJECTED; // The stored punch already covers the new one
+                }
+                values[slot] = merged | (values[slot] & WRITTEN_FLAG);
+                return Outcome.REPLACED;
+            default:
+                return Outcome.REJECTED;
+        }
+    }
+
+    /**
+     * Convenience overload of {@link #offer(int, int, int, int)} for an {@link AttendanceFileHandler.AttendanceRecord}.
+     */
+    public Outcome offer(int empNo, AttendanceFileHandler.AttendanceRecord record) {
+        return offer(empNo, (int) record.date.toEpochDay(), toMinute(record.timeIn), toMinute(record.timeOut));
+    }
+
+    /**
+     * Checks whether an employee already has a punch on a day.
+     */
+    public synchronized boolean contains(int empNo, LocalDate date) {
+        return keys[slotOf(key(empNo, (int) date.toEpochDay()))] != EMPTY_KEY;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /** Number of conflicting punches whose interval intersected the stored one. */
+    public synchronized int getOverlapCount() {
+        return overlaps;
+    }
+
+    /** Number of conflicting punches on a day that already had a separate, non-overlapping punch. */
+    public synchronized int getSameDayPunchCount() {
+        return sameDayPunches;
+    }
+
+    /**
+     * Rewrites an attendance CSV so each employee/day appears once, carrying the interval held by this index.
+     * The first row of each pair keeps its place; later rows are dropped. Rows the readers reject are kept as-is.
+     * The file is replaced atomically.
+     *
+     * @param file The attendance CSV this index was built from (and kept in sync with).
+     * @return The number of rows removed.
+     * @throws IOException if the file cannot be rewritten.
+     */
+    public synchronized int compact(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".compact");
+        AttendanceRowParser parser = new AttendanceRowParser();
+        int removed = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (line != null) {
+                writer.write(line); // Header row
+                writer.write('\n');
+            }
+            while ((line = reader.readLine()) != null) {
+                if (!parser.parse(line)) {
+                    writer.write(line);
+                    writer.write('\n');
+                    continue;
+                }
+                int slot = slotOf(key(parser.empNo, parser.epochDay));
+                if (keys[slot] == EMPTY_KEY) {
+                    // Punch added to the file behind the index's back: index it now
+                    offer(parser.empNo, parser.epochDay, parser.inMinute, parser.outMinute);
+                    slot = slotOf(key(parser.empNo, parser.epochDay));
+                }
+                if ((values[slot] & WRITTEN_FLAG) != 0) {
+                    removed++; // Later row for a pair that was already written
+                    continue;
+                }
+                int value = values[slot];
+                values[slot] = value | WRITTEN_FLAG;
+                if (value == pack(parser.inMinute, parser.outMinute)) {
+                    writer.write(line);
+                } else {
+                    writer.write(withTimes(line, parser, value >>> 16, value & 0xFFFF));
+                }
+                writer.write('\n');
+            }
+        } finally {
+            for (int i = 0; i < values.length; i++) {
+                values[i] &= ~WRITTEN_FLAG;
+            }
+        }
+
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        AttendanceTailer.fileRewritten(file);
+        return removed;
+    }
+
+    // Replaces the Log In / Log Out columns of a row, keeping every other column untouched.
+    private static String withTimes(String line, AttendanceRowParser parser, int inMinute, int outMinute) throws IOException {
+        String times = formatMinute(inMinute) + "," + formatMinute(outMinute);
+        if (parser.timesStart >= 0) {
+            int afterIn = line.indexOf(',', parser.timesStart);
+            int afterOut = line.indexOf(',', afterIn + 1);
+            return line.substring(0, parser.timesStart) + times + (afterOut < 0 ? "" : line.substring(afterOut));
+        }
+
+        String[] columns = parser.columns(line);
+        columns[4] = formatMinute(inMinute);
+        columns[5] = formatMinute(outMinute);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            String column = columns[i];
+            if (column.indexOf(',') >= 0 || column.indexOf('"') >= 0) {
+                sb.append('"').append(column.replace("\"", "\"\"")).append('"');
+            } else {
+                sb.append(column);
+            }
+        }
+        return sb.toString();
+    }
+
+    // Same "H:mm" shape as the attendance CSV.
+    static String formatMinute(int minute) {
+        int m = minute % 60;
+        return (minute / 60) + (m < 10 ? ":0" : ":") + m;
+    }
+
+    private static int toMinute(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static long key(int empNo, int epochDay) {
+        return ((long) empNo << 32) | (epochDay & 0xFFFFFFFFL);
+    }
+
+    private static int pack(int inMinute, int outMinute) {
+        return (inMinute << 16) | outMinute;
+    }
+
+    // Linear probing from a mixed hash of the key.
+    private int slotOf(long key) {
+        int slot = (int) mix(key) & mask;
+        while (keys[slot] != EMPTY_KEY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY_KEY) {
+                int slot = slotOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+import com.opencsv.CSVParser;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.Year;
+import java.time.format.DateTimeParseException;
+
+/**
+ * `AttendanceRowParser` decodes one raw `employee_attendance.csv` line into primitive fields.
+ * It accepts exactly the rows {@link AttendanceFileHandler#parseRecord(String[])} accepts:
+ * plain `EmpNo,Last,First,MM/dd/yyyy,H:mm,H:mm` rows are decoded in place without allocating,
+ * anything else (quoted fields, padding, odd widths) falls back to the shared parser for the verdict.
+ * One instance is reused per thread; it is not thread-safe.
+ */
+class AttendanceRowParser {
+    private final CSVParser csvParser = new CSVParser();
+
+    // Fields of the last successfully parsed row.
+    int empNo;
+    int epochDay;
+    int inMinute;   // Minutes after midnight
+    int outMinute;  // Minutes after midnight
+    // Offset just past the Date column's trailing comma for plain rows, or -1 for rows that needed the CSV parser.
+    int timesStart;
+
+    /**
+     * Parses a line, updating the public fields on success.
+     *
+     * @param line One raw CSV line, without its line terminator.
+     * @return true if the row is a valid attendance row, false if every reader would reject it.
+     */
+    boolean parse(String line) {
+        if (line.indexOf('"') < 0) {
+            int c0 = line.indexOf(',');
+            int c1 = c0 < 0 ? -1 : line.indexOf(',', c0 + 1);
+            int c2 = c1 < 0 ? -1 : line.indexOf(',', c1 + 1);
+            int c3 = c2 < 0 ? -1 : line.indexOf(',', c2 + 1);
+            int c4 = c3 < 0 ? -1 : line.indexOf(',', c3 + 1);
+            if (c4 < 0) {
+                return false; // Fewer than 6 columns
+            }
+            int c5 = line.indexOf(',', c4 + 1);
+            int end = c5 < 0 ? line.length() : c5;
+
+            if (!isEmpNo(line, 0, c0)) {
+                return false; // Employee # must be numeric
+            }
+            if (isPlainDate(line, c2 + 1, c3) && isPlainTime(line, c3 + 1, c4) && isPlainTime(line, c4 + 1, end)) {
+                empNo = digitsToInt(line, 0, c0);
+                epochDay = (int) LocalDate.of(digitsToInt(line, c2 + 7, c3), digitsToInt(line, c2 + 1, c2 + 3),
+                    digitsToInt(line, c2 + 4, c2 + 6)).toEpochDay();
+                inMinute = timeToMinute(line, c3 + 1, c4);
+                outMinute = timeToMinute(line, c4 + 1, end);
+                timesStart = c3 + 1;
+                return true;
+            }
+        }
+        return parseWithSharedParser(line);
+    }
+
+    /**
+     * Splits a line into its CSV columns, honouring quotes.
+     */
+    String[] columns(String line) throws IOException {
+        return csvParser.parseLine(line);
+    }
+
+    private boolean parseWithSharedParser(String line) {
+        try {
+            String[] columns = csvParser.parseLine(line);
+            if (columns == null || columns.length < 6 || !isEmpNo(columns[0], 0, columns[0].length())) {
+                return false;
+            }
+            AttendanceFileHandler.AttendanceRecord record = AttendanceFileHandler.parseRecord(columns);
+            empNo = Integer.parseInt(columns[0]);
+            epochDay = (int) record.date.toEpochDay();
+            inMinute = record.timeIn.getHour() * 60 + record.timeIn.getMinute();
+            outMinute = record.timeOut.getHour() * 60 + record.timeOut.getMinute();
+            timesStart = -1;
+            return true;
+        } catch (IOException | DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    // 1–9 digits, so it always fits an int.
+    private static boolean isEmpNo(String s, int from, int to) {
+        return to - from <= 9 && isDigits(s, from, to);
+    }
+
+    // "MM/dd/yyyy" with a day that exists in that month.
+    private static boolean isPlainDate(String s, int from, int to) {
+        if (to - from != 10 || s.charAt(from + 2) != '/' || s.charAt(from + 5) != '/'
+                || !isDigits(s, from, from + 2) || !isDigits(s, from + 3, from + 5) || !isDigits(s, from + 6, to)) {
+            return false;
+        }
+        int month = digitsToInt(s, from, from + 2);
+        int day = digitsToInt(s, from + 3, from + 5);
+        int year = digitsToInt(s, from + 6, to);
+        if (month < 1 || month > 12 || day < 1) {
+            return false;
+        }
+        return day <= Month.of(month).length(Year.isLeap(year));
+    }
+
+    // "H:mm" or "HH:mm" within 00:00–23:59.
+    private static boolean isPlainTime(String s, int from, int to) {
+        int length = to - from;
+        if ((length != 4 && length != 5) || s.charAt(to - 3) != ':' || !isDigits(s, from, to - 3) || !isDigits(s, to - 2, to)) {
+            return false;
+        }
+        return digitsToInt(s, from, to - 3) <= 23 && digitsToInt(s, to - 2, to) <= 59;
+    }
+
+    private static int timeToMinute(String s, int from, int to) {
+        return digitsToInt(s, from, to - 3) * 60 + digitsToInt(s, to - 2, to);
+    }
+
+    private static boolean isDigits(String s, int from, int to) {
+        if (from >= to) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int digitsToInt(String s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            value = value * 10 + (s.charAt(i) - '0');
+        }
+        return value;
+    }
+}
@@ -0,0 +1,181 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * `AttendanceStore` gives random access to rows of `employee_attendance.csv` by byte offset.
+ * A query scans the file once at the byte level and keeps only the start offset of each matching
+ * row (8 bytes per row); the rows themselves are re-read on demand, a page at a time, so callers
+ * such as {@link AttendanceTableModel} only ever hold the rows currently being displayed.
+ */
+public class AttendanceStore {
+    private static final int SCAN_CHUNK = 1 << 20;
+    private static final int ROW_READ_SIZE = 256;
+
+    private final Path file;
+
+    public AttendanceStore() {
+        this(Paths.get(AttendanceFileHandler.CSV_PATH));
+    }
+
+    public AttendanceStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Finds the rows for one employee (or everyone) within a date range.
+     *
+     * @param empNo The employee's ID, or null for all employees.
+     * @param startDate The first date to include.
+     * @param endDate The last date to include.
+     * @return The byte offsets of the matching rows, in file order.
+     * @throws IOException if the file cannot be read.
+     */
+    public long[] findRows(String empNo, LocalDate startDate, LocalDate endDate) throws IOException {
+        byte[] empPrefix = empNo == null ? null : (empNo + ",").getBytes(StandardCharsets.UTF_8);
+        long startDay = startDate.toEpochDay();
+        long endDay = endDate.toEpochDay();
+        AttendanceRowParser parser = new AttendanceRowParser();
+        long[] offsets = new long[1024];
+        int count = 0;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(SCAN_CHUNK);
+            byte[] bytes = buffer.array();
+            long position = 0;
+            boolean header = true;
+
+            while (true) {
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                if (read <= 0) {
+                    break;
+                }
+                boolean lastChunk = position + read >= channel.size();
+                int lineStart = 0;
+                while (lineStart < read) {
+                    int lineEnd = indexOf(bytes, (byte) '\n', lineStart, read);
+                    if (lineEnd < 0) {
+                        if (!lastChunk && lineStart > 0) {
+                            break; // Incomplete line: re-read it at the start of the next chunk
+                        }
+                        lineEnd = read; // Last line without a line break (or a line longer than the chunk)
+                    }
+                    if (header) {
+                        header = false; // Skip header row
+                    } else if (empPrefix == null || startsWith(bytes, lineStart, lineEnd, empPrefix)) {
+                        int length = lineEnd > lineStart && bytes[lineEnd - 1] == '\r' ? lineEnd - 1 - lineStart : lineEnd - lineStart;
+                        String line = new String(bytes, lineStart, length, StandardCharsets.UTF_8);
+                        if (parser.parse(line) && parser.epochDay >= startDay && parser.epochDay <= endDay) {
+                            if (count == offsets.length) {
+                                offsets = Arrays.copyOf(offsets, count * 2);
+                            }
+                            offsets[count++] = position + lineStart;
+                        }
+                    }
+                    lineStart = lineEnd + 1;
+                }
+                position += Math.min(lineStart, read);
+            }
+        }
+        return Arrays.copyOf(offsets, count);
+    }
+
+    /**
+     * Reads and decodes the rows at the given offsets.
+     *
+     * @param offsets Row offsets returned by {@link #findRows}.
+     * @param from Index of the first offset to read.
+     * @param count Number of rows to read.
+     * @return The decoded rows, or an empty page if the file changed underneath.
+     * @throws IOException if the file cannot be read.
+     */
+    public Page readPage(long[] offsets, int from, int count) throws IOException {
+        Page page = new Page(count);
+        AttendanceRowParser parser = new AttendanceRowParser();
+        ByteBuffer buffer = ByteBuffer.allocate(ROW_READ_SIZE);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (int i = 0; i < count; i++) {
+                String line = readLine(channel, offsets[from + i], buffer);
+                if (line != null && parser.parse(line)) {
+                    page.empNo[i] = parser.empNo;
+                    page.epochDay[i] = parser.epochDay;
+                    page.inMinute[i] = (short) parser.inMinute;
+                    page.outMinute[i] = (short) parser.outMinute;
+                } else {
+                    page.empNo[i] = -1; // Row moved or changed since the scan
+                }
+            }
+        }
+        return page;
+    }
+
+    private static String readLine(FileChannel channel, long offset, ByteBuffer buffer) throws IOException {
+        ByteBuffer current = buffer;
+        while (true) {
+            current.clear();
+            int read = channel.read(current, offset);
+            if (read <= 0) {
+                return null;
+            }
+            int end = indexOf(current.array(), (byte) '\n', 0, read);
+            if (end < 0 && read == current.capacity()) {
+                current = ByteBuffer.allocate(current.capacity() * 2); // Unusually long row
+                continue;
+            }
+            if (end < 0) {
+                end = read;
+            }
+            if (end > 0 && current.get(end - 1) == '\r') {
+                end--;
+            }
+            return new String(current.array(), 0, end, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static int indexOf(byte[] bytes, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean startsWith(byte[] bytes, int from, int to, byte[] prefix) {
+        if (to - from < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[from + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A block of decoded rows held as primitive columns.
+     */
+    public static class Page {
+
+        public final int[] empNo;
+        public final int[] epochDay;
+        public final short[] inMinute;
+        public final short[] outMinute;
+
+        Page(int size) {
+            this.empNo = new int[size];
+            this.epochDay = new int[size];
+            this.inMinute = new short[size];
+            this.outMinute = new short[size];
+        }
+    }
+}
@@ -0,0 +1,295 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+
+/**
+ * `AttendanceSummary` holds per-employee attendance totals for a date range, built in one pass over the attendance CSV.
+ * It applies the same rules as {@link AttendanceFileHandler#acomputeMonthlyHoursAndOT} and
+ * {@link AttendanceFileHandler#computeLateMinutes} (Sundays excluded, overtime before 8:00 AM and
+ * after 5:00 PM, lateness after the 8:10 AM grace period or before 5:00 PM), so batch payroll can
+ * read every employee's hours without re-reading the file once per employee.
+ */
+public class AttendanceSummary {
+    private static final int STANDARD_IN = AttendanceFileHandler.STANDARD_TIME_IN.getHour() * 60 + AttendanceFileHandler.STANDARD_TIME_IN.getMinute();
+    private static final int GRACE_END = AttendanceFileHandler.GRACE_PERIOD_END.getHour() * 60 + AttendanceFileHandler.GRACE_PERIOD_END.getMinute();
+    private static final int STANDARD_OUT = AttendanceFileHandler.STANDARD_TIME_OUT.getHour() * 60 + AttendanceFileHandler.STANDARD_TIME_OUT.getMinute();
+
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private PayPeriod period;       // Set when the range is a semi-monthly cutoff
+    private final long calendarVersion; // WorkCalendar version that classified the holiday minutes
+
+    // Open-addressing map from employee number to a row in the total arrays
+    private int[] slotKeys = new int[256];
+    private int[] slotRows = new int[256];
+    private int size;
+
+    private int[] workedMinutes = new int[128];
+    private int[] overtimeMinutes = new int[128];
+    private int[] lateMinutes = new int[128];
+    private int[] regularHolidayMinutes = new int[128];
+    private int[] specialHolidayMinutes = new int[128];
+    private int[] daysPresent = new int[128];
+    private long[] attendanceHash = new long[128];
+
+    private AttendanceSummary(LocalDate startDate, LocalDate endDate) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.calendarVersion = WorkCalendar.getVersion();
+    }
+
+    /**
+     * Summarises every employee's attendance for a month from the default attendance CSV.
+     */
+    public static AttendanceSummary load(YearMonth yearMonth) {
+        return load(yearMonth.atDay(1), yearMonth.atEndOfMonth());
+    }
+
+    /**
+     * Summarises every employee's attendance for a semi-monthly cutoff from the default attendance CSV.
+     */
+    public static AttendanceSummary load(PayPeriod period) {
+        return load(period, 0);
+    }
+
+    /**
+     * Summarises one employee's attendance (or everyone's, for 0) for a semi-monthly cutoff.
+     */
+    public static AttendanceSummary load(PayPeriod period, int empNo) {
+        AttendanceSummary summary = load(period.getStart(), period.getEnd(), empNo);
+        summary.period = period;
+        return summary;
+    }
+
+    /**
+     * Summarises every employee's attendance between two dates (inclusive) from the default attendance CSV.
+     * Read errors are logged and leave the summary empty, like the other attendance readers.
+     */
+    public static AttendanceSummary load(LocalDate startDate, LocalDate endDate) {
+        return load(startDate, endDate, 0);
+    }
+
+    /**
+     * Summarises one employee's attendance for a month from the default attendance CSV.
+     */
+    public static AttendanceSummary load(YearMonth yearMonth, int empNo) {
+        return load(yearMonth.atDay(1), yearMonth.atEndOfMonth(), empNo);
+    }
+
+    private static AttendanceSummary load(LocalDate startDate, LocalDate endDate, int empNo) {
+        try {
+            return load(Paths.get(AttendanceFileHandler.CSV_PATH), startDate, endDate, empNo);
+        } catch (IOException e) {
+            System.err.println("Failed to read CSV file: " + e.getMessage());
+            return new AttendanceSummary(startDate, endDate);
+        }
+    }
+
+    /**
+     * Summarises attendance between two dates (inclusive).
+     *
+     * @param file The attendance CSV.
+     * @param startDate The first date to include.
+     * @param endDate The last date to include.
+     * @param empNo Only summarise this employee, or 0 for everyone.
+     * @return The per-employee totals.
+     * @throws IOException if the file cannot be read.
+     */
+    public static AttendanceSummary load(Path file, LocalDate startDate, LocalDate endDate, int empNo) throws IOException {
+        AttendanceSummary summary = new AttendanceSummary(startDate, endDate);
+        long startDay = startDate.toEpochDay();
+        long endDay = endDate.toEpochDay();
+        AttendanceRowParser parser = new AttendanceRowParser();
+
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            reader.readLine(); // Skip header row
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!parser.parse(line) || parser.epochDay < startDay || parser.epochDay > endDay
+                        || (empNo != 0 && parser.empNo != empNo)) {
+                    continue;
+                }
+                summary.add(parser.empNo, parser.epochDay, parser.inMinute, parser.outMinute);
+            }
+        }
+        return summary;
+    }
+
+    private void add(int empNo, int epochDay, int in, int out) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        // Sundays are automatically excluded
+        if (date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            return;
+        }
+        int row = rowFor(empNo, true);
+        // Sum of per-punch hashes: independent of row order, so compaction or re-sorting the file does not change it
+        attendanceHash[row] += SalaryComputation.mix(SalaryComputation.mix(epochDay, in), out);
+
+        // Overtime counts when working before 8:00 AM (early) or after 5:00 PM (late)
+        int ot = Math.max(0, STANDARD_IN - in) + Math.max(0, out - STANDARD_OUT);
+        overtimeMinutes[row] += ot;
+
+        // Late minutes: login after 8:10 AM, logout before 5:00 PM
+        lateMinutes[row] += Math.max(0, in - GRACE_END) + Math.max(0, STANDARD_OUT - out);
+
+        if (out > in) {
+            int worked = out - in;
+            workedMinutes[row] += worked;
+            daysPresent[row]++;
+            if (WorkCalendar.isRegularHoliday(date)) {
+                regularHolidayMinutes[row] += worked;
+            } else if (WorkCalendar.isSpecialHoliday(date)) {
+                specialHolidayMinutes[row] += worked;
+            }
+        }
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    /**
+     * The cutoff this summary covers, or null if it was loaded for a month or an arbitrary range.
+     */
+    public PayPeriod getPeriod() {
+        return period;
+    }
+
+    /**
+     * The {@link WorkCalendar#getVersion()} in force when this summary was built; its holiday minutes follow that calendar.
+     */
+    public long getCalendarVersion() {
+        return calendarVersion;
+    }
+
+    /** Number of employees with at least one punch in the range. */
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int empNo) {
+        return rowFor(empNo, false) >= 0;
+    }
+
+    /** Total worked hours, overtime included. */
+    public double getWorkedHours(int empNo) {
+        int row = rowFor(empNo, false);
+        return row < 0 ? 0 : workedMinutes[row] / 60.0;
+    }
+
+    public double getOvertimeHours(int empNo) {
+        int row = rowFor(empNo, false);
+        return row < 0 ? 0 : overtimeMinutes[row] / 60.0;
+    }
+
+    /** Total worked minutes, overtime included. */
+    public int getWorkedMinutes(int empNo) {
+        int row = rowFor(empNo, false);
+        return row < 0 ? 0 : workedMinutes[row];
+    }
+
+    public int getOvertimeMinutes(int empNo) {
+        int row = rowFor(empNo, false);
+        return row < 0 ? 0 : overtimeMinutes[row];
+    }
+
+    public int getRegularHolidayMinutes(int empNo) {
+        int row = rowFor(empNo, false);
+        return row < 0 ? 0 : regularHolidayMinutes[row];
+    }
+
+    public int getSpecialHolidayMinutes(int empNo) {
+        int row = rowFor(empNo, false);
+        return row < 0 ? 0 : specialHolidayMinutes[row];
+    }
+
+    public int getLateMinutes(int empNo) {
+        int row = rowFor(empNo, false);
+        return row < 0 ? 0 : lateMinutes[row];
+    }
+
+    public double getRegularHolidayHours(int empNo) {
+        int row = rowFor(empNo, false);
+        return row < 0 ? 0 : regularHolidayMinutes[row] / 60.0;
+    }
+
+    public double getSpecialHolidayHours(int empNo) {
+        int row = rowFor(empNo, false);
+        return row < 0 ? 0 : specialHolidayMinutes[row] / 60.0;
+    }
+
+    public int getDaysPresent(int empNo) {
+        int row = rowFor(empNo, false);
+        return row < 0 ? 0 : daysPresent[row];
+    }
+
+    /**
+     * Hash of the punches counted for an employee in the range, or 0 if none.
+     * Changes when any of those punches is added, removed or edited.
+     */
+    public long getAttendanceHash(int empNo) {
+        int row = rowFor(empNo, false);
+        return row < 0 ? 0 : attendanceHash[row];
+    }
+
+    // Returns the row for an employee, creating it if asked to; -1 if absent.
+    private int rowFor(int empNo, boolean create) {
+        int mask = slotKeys.length - 1;
+        int slot = (empNo * 0x9E3779B9) >>> 1 & mask;
+        while (slotKeys[slot] != 0) {
+            if (slotKeys[slot] == empNo) {
+                return slotRows[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (!create) {
+            return -1;
+        }
+
+        if (size == workedMinutes.length) {
+            int capacity = size * 2;
+            workedMinutes = Arrays.copyOf(workedMinutes, capacity);
+            overtimeMinutes = Arrays.copyOf(overtimeMinutes, capacity);
+            lateMinutes = Arrays.copyOf(lateMinutes, capacity);
+            regularHolidayMinutes = Arrays.copyOf(regularHolidayMinutes, capacity);
+            specialHolidayMinutes = Arrays.copyOf(specialHolidayMinutes, capacity);
+            daysPresent = Arrays.copyOf(daysPresent, capacity);
+            attendanceHash = Arrays.copyOf(attendanceHash, capacity);
+        }
+        slotKeys[slot] = empNo;
+        slotRows[slot] = size;
+        if (++size * 2 > slotKeys.length) {
+            rehash();
+        }
+        return size - 1;
+    }
+
+    private void rehash() {
+        int[] oldKeys = slotKeys;
+        int[] oldRows = slotRows;
+        slotKeys = new int[oldKeys.length * 2];
+        slotRows = new int[oldRows.length * 2];
+        int mask = slotKeys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = (oldKeys[i] * 0x9E3779B9) >>> 1 & mask;
+                while (slotKeys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slotKeys[slot] = oldKeys[i];
+                slotRows[slot] = oldRows[i];
+            }
+        }
+    }
+}
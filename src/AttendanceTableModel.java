@@ -0,0 +1,153 @@
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * `AttendanceTableModel` backs the attendance `JTable` without materialising every row.
+ * It holds only the byte offsets of the matching rows; rows are read from the {@link AttendanceStore}
+ * a page at a time when the table asks for them, kept in a small LRU of pages, and formatted in
+ * {@link #getValueAt} only for the cells being rendered.
+ */
+public class AttendanceTableModel extends AbstractTableModel {
+    private static final int PAGE_SIZE = 128;
+    private static final int CACHED_PAGES = 8;
+    private static final String[] COLUMNS = {"Date", "Time IN", "Time OUT", "Status", "Remarks"};
+    private static final String[] COLUMNS_WITH_EMPLOYEE = {"Emp #", "Date", "Time IN", "Time OUT", "Status", "Remarks"};
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+    private static final String NO_RECORDS = "No records found for this period";
+
+    private final AttendanceStore store;
+    private final boolean showEmployee;
+    private long[] offsets = new long[0];
+    private boolean loaded;
+
+    // Least-recently-used pages of decoded rows
+    private final Map<Integer, AttendanceStore.Page> pages = new LinkedHashMap<Integer, AttendanceStore.Page>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, AttendanceStore.Page> eldest) {
+            return size() > CACHED_PAGES;
+        }
+    };
+
+    /**
+     * @param store Where rows are read from.
+     * @param showEmployee Adds an "Emp #" column, for views spanning several employees.
+     */
+    public AttendanceTableModel(AttendanceStore store, boolean showEmployee) {
+        this.store = store;
+        this.showEmployee = showEmployee;
+    }
+
+    /**
+     * Finds the matching rows. Scans the file, so call it off the Event Dispatch Thread
+     * and hand the result to {@link #setRows(long[])}.
+     */
+    public long[] findRows(String empNo, LocalDate startDate, LocalDate endDate) throws IOException {
+        return store.findRows(empNo, startDate, endDate);
+    }
+
+    /**
+     * Replaces the rows shown by the table. Call on the Event Dispatch Thread.
+     */
+    public void setRows(long[] rowOffsets) {
+        this.offsets = rowOffsets;
+        this.loaded = true;
+        pages.clear();
+        fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+        // Keeps the "no records" message row the table always showed for an empty period
+        return loaded && offsets.length == 0 ? 1 : offsets.length;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return showEmployee ? COLUMNS_WITH_EMPLOYEE.length : COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return showEmployee ? COLUMNS_WITH_EMPLOYEE[column] : COLUMNS[column];
+    }
+
+    @Override
+    public boolean isCellEditable(int rowIndex, int columnIndex) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        int column = showEmployee ? columnIndex - 1 : columnIndex;
+        if (offsets.length == 0) {
+            return column == 3 ? NO_RECORDS : "";
+        }
+
+        AttendanceStore.Page page = page(rowIndex / PAGE_SIZE);
+        int i = rowIndex % PAGE_SIZE;
+        if (page == null || page.empNo[i] < 0) {
+            return ""; // File changed since the scan; the tailer will trigger a reload
+        }
+        if (column == -1) {
+            return String.valueOf(page.empNo[i]);
+        }
+
+        // Formatted here, only for the cells actually being painted
+        switch (column) {
+            case 0:
+                return LocalDate.ofEpochDay(page.epochDay[i]).format(DATE_FORMAT);
+            case 1:
+                return formatTime(page.inMinute[i]);
+            case 2:
+                return formatTime(page.outMinute[i]);
+            case 3:
+                return statusOf(toTime(page.inMinute[i]), toTime(page.outMinute[i]));
+            default:
+                return ""; // Empty remarks for now, can be expanded later
+        }
+    }
+
+    /**
+     * Attendance status shown in the table: late after the grace period, early out before 5:00 PM.
+     */
+    static String statusOf(LocalTime timeIn, LocalTime timeOut) {
+        if (timeIn.isAfter(AttendanceFileHandler.GRACE_PERIOD_END)) {
+            return "Late";
+        } else if (timeOut.isBefore(AttendanceFileHandler.STANDARD_TIME_OUT)) {
+            return "Early Out";
+        } else {
+            return "Present";
+        }
+    }
+
+    private AttendanceStore.Page page(int pageIndex) {
+        AttendanceStore.Page page = pages.get(pageIndex);
+        if (page == null) {
+            int from = pageIndex * PAGE_SIZE;
+            int count = Math.min(PAGE_SIZE, offsets.length - from);
+            try {
+                page = store.readPage(offsets, from, count);
+                pages.put(pageIndex, page);
+            } catch (IOException e) {
+                System.err.println("Failed to read attendance rows: " + e.getMessage());
+            }
+        }
+        return page;
+    }
+
+    private static LocalTime toTime(short minute) {
+        return LocalTime.of(minute / 60, minute % 60);
+    }
+
+    // Same "HH:mm" display as before
+    private static String formatTime(short minute) {
+        int h = minute / 60;
+        int m = minute % 60;
+        return (h < 10 ? "0" : "") + h + (m < 10 ? ":0" : ":") + m;
+    }
+}
@@ -0,0 +1,274 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * `AttendanceTailer` follows `employee_attendance.csv` while an external clock system appends to it.
+ * It remembers the byte offset it has processed, reads only the bytes appended since, and pushes
+ * the new punches to the shared {@link AttendanceIndex} and to registered listeners (open
+ * `Attendance` windows, caches). When the file is truncated or replaced, the shared index is rebuilt from it.
+ * A replacement is seen from the file key where the platform has one, from a changed modification time with
+ * no growth, or from {@link #fileRewritten} when this process rewrote the file itself. A `WatchService` wakes
+ * it on changes; it also re-checks the file size every {@link #POLL_MILLIS} ms because some platforms deliver
+ * watch events late.
+ */
+public class AttendanceTailer {
+    private static final long POLL_MILLIS = 250;
+    private static final int READ_CHUNK = 1 << 20;
+
+    private static AttendanceTailer shared;
+
+    /**
+     * Receives punches appended to the attendance file. Called on the tailer thread.
+     */
+    public interface Listener {
+        void onPunchesAppended(List<Punch> punches);
+
+        /** The file was replaced or truncated (e.g. compacted); anything derived from it should be reloaded. */
+        default void onFileReset() {
+        }
+    }
+
+    /**
+     * One appended attendance row.
+     */
+    public static class Punch {
+
+        public final int empNo;
+        public final AttendanceFileHandler.AttendanceRecord record;
+
+        public Punch(int empNo, AttendanceFileHandler.AttendanceRecord record) {
+            this.empNo = empNo;
+            this.record = record;
+        }
+    }
+
+    private final Path file;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final AttendanceRowParser parser = new AttendanceRowParser();
+    private long offset;
+    private Object fileKey;              // Null on platforms without file keys (Windows)
+    private long lastSize;
+    private FileTime lastModified;
+    private volatile boolean rewritten;
+    private Thread thread;
+    private volatile boolean running;
+
+    public AttendanceTailer(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the process-wide tailer of the default attendance CSV, starting it on first use.
+     */
+    public static synchronized AttendanceTailer shared() {
+        if (shared == null) {
+            shared = new AttendanceTailer(Paths.get(AttendanceFileHandler.CSV_PATH));
+            shared.start();
+        }
+        return shared;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Starts following the file from its current end; rows already in the file are not replayed.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            offset = attributes.size();
+            snapshot(attributes);
+        } catch (IOException e) {
+            offset = 0; // File not there yet: everything written later is new
+        }
+        running = true;
+        thread = new Thread(this::run, "attendance-tailer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Tells the shared tailer, if one is running on `file`, that this process just rewrote the file in place
+     * (e.g. {@link AttendanceIndex#compact}); it resets on its next check instead of relying on file metadata.
+     */
+    public static void fileRewritten(Path file) {
+        AttendanceTailer tailer;
+        synchronized (AttendanceTailer.class) {
+            tailer = shared;
+        }
+        if (tailer != null && tailer.file.toAbsolutePath().normalize().equals(file.toAbsolutePath().normalize())) {
+            tailer.rewritten = true;
+        }
+    }
+
+    private void run() {
+        try (WatchService watcher = FileSystems.getDefault().newWatchService()) {
+            Path dir = file.toAbsolutePath().getParent();
+            dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+            while (running) {
+                WatchKey key = watcher.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    key.pollEvents(); // Any event in the folder just triggers a size check below
+                    key.reset();
+                }
+                checkForAppends();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Attendance tailer stopped: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads every complete line appended since the last check and notifies listeners.
+     */
+    void checkForAppends() {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return; // Temporarily missing (e.g. being replaced)
+        }
+
+        boolean replaced = rewritten
+            || attributes.size() < offset
+            || !Objects.equals(attributes.fileKey(), fileKey)
+            // Appends only grow the file, so a new timestamp at the same size means it was rewritten
+            || attributes.size() == lastSize && !Objects.equals(attributes.lastModifiedTime(), lastModified);
+        if (replaced) {
+            // Truncated or replaced: start over from the new end of file
+            rewritten = false;
+            offset = attributes.size();
+            snapshot(attributes);
+            AttendanceIndex index = AttendanceIndex.sharedIfLoaded();
+            if (index != null) {
+                try {
+                    index.reload(file); // Rows may have been removed or rewritten, not just appended
+                } catch (IOException e) {
+                    System.err.println("Failed to reload attendance index: " + e.getMessage());
+                }
+            }
+            PayrollCache cache = PayrollCache.sharedIfLoaded();
+            if (cache != null) {
+                cache.attendanceReset();
+            }
+            for (Listener listener : listeners) {
+                listener.onFileReset();
+            }
+            return;
+        }
+        snapshot(attributes);
+        if (attributes.size() == offset) {
+            return;
+        }
+
+        List<Punch> punches = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(READ_CHUNK);
+            long end = attributes.size();
+            while (offset < end) {
+                buffer.clear();
+                int read = channel.read(buffer, offset);
+                if (read <= 0) {
+                    break;
+                }
+                int lastNewline = -1;
+                for (int i = read - 1; i >= 0; i--) {
+                    if (buffer.get(i) == '\n') {
+                        lastNewline = i;
+                        break;
+                    }
+                }
+                if (lastNewline < 0) {
+                    if (read < READ_CHUNK) {
+                        break; // Last line is still being written; pick it up next time
+                    }
+                    lastNewline = read - 1; // Absurdly long line: consume it rather than stall
+                }
+                String text = new String(buffer.array(), 0, lastNewline + 1, StandardCharsets.UTF_8);
+                collectPunches(text, punches);
+                offset += lastNewline + 1;
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to read appended attendance rows: " + e.getMessage());
+            return;
+        }
+
+        if (punches.isEmpty()) {
+            return;
+        }
+        AttendanceIndex index = AttendanceIndex.sharedIfLoaded();
+        if (index != null) {
+            for (Punch punch : punches) {
+                index.offer(punch.empNo, punch.record);
+            }
+        }
+        PayrollCache cache = PayrollCache.sharedIfLoaded();
+        if (cache != null) {
+            for (Punch punch : punches) {
+                cache.attendanceChanged(punch.empNo, punch.record.date);
+            }
+        }
+        for (Listener listener : listeners) {
+            listener.onPunchesAppended(punches);
+        }
+    }
+
+    private void snapshot(BasicFileAttributes attributes) {
+        fileKey = attributes.fileKey();
+        lastSize = attributes.size();
+        lastModified = attributes.lastModifiedTime();
+    }
+
+    private void collectPunches(String text, List<Punch> punches) {
+        int start = 0;
+        int newline;
+        while ((newline = text.indexOf('\n', start)) >= 0) {
+            String line = text.substring(start, newline > start && text.charAt(newline - 1) == '\r' ? newline - 1 : newline);
+            start = newline + 1;
+            if (!line.isEmpty() && parser.parse(line)) {
+                punches.add(new Punch(parser.empNo, new AttendanceFileHandler.AttendanceRecord(LocalDate.ofEpochDay(parser.epochDay),
+                    LocalTime.of(parser.inMinute / 60, parser.inMinute % 60),
+                    LocalTime.of(parser.outMinute / 60, parser.outMinute % 60))));
+            }
+        }
+    }
+}
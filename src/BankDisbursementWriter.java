@@ -0,0 +1,382 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * `BankDisbursementWriter` writes the bank credit file that pays each employee's net pay, in one streaming
+ * pass over the results of a finalized {@link PayrollBatch} run. Control totals (record count and total amount)
+ * and a hash total (the sum of all account numbers, which the bank recomputes to detect altered or dropped
+ * lines) are accumulated as rows are written and closed off in a trailer record. The hash total is kept to
+ * its last 20 digits, the width of its trailer field, in two 10-digit halves, so it never overflows however
+ * many 16-digit accounts are paid. Rows are formatted by hand into one reused
+ * `StringBuilder` and written through a 1 MB buffer, like {@link PayrollRegisterWriter}.
+ * <p>
+ * Employee records have no bank account field, so the caller supplies each employee's account number,
+ * e.g. from a mapping file read with {@link #readAccounts}. Account numbers are digit strings, so leading
+ * zeros reach the bank as they were given. An employee with pay but no account on file
+ * fails the export instead of silently going unpaid. Employees with no positive net pay get no credit line.
+ * <p>
+ * Lines go to a temporary file next to the credit file; {@link #finish()} adds the trailer and moves it into
+ * place. Closing the writer without finishing deletes it, so a failed run never leaves a credit file behind,
+ * and a bank never receives a trailer that totals only part of a payroll.
+ * <p>
+ * Fixed-width layout (one record per line, amounts in centavos, zero-padded):
+ * <pre>
+ * H  company code (10)  credit date yyyyMMdd (8)
+ * D  account number (16, zero-padded on the left)  amount (15)  name (40, uppercase ASCII)
+ * T  record count (8)  total amount (17)  hash total (20)
+ * </pre>
+ * The CSV layout has the same three record types, with amounts in pesos.
+ */
+public class BankDisbursementWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final DateTimeFormatter FIXED_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter CSV_DATE = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+    private static final int COMPANY_WIDTH = 10;
+    private static final int ACCOUNT_WIDTH = 16;
+    private static final int AMOUNT_WIDTH = 15;
+    private static final int NAME_WIDTH = 40;
+    private static final int HASH_WIDTH = 20;
+    private static final long HASH_HALF = 10_000_000_000L; // 10^10: each half of the hash total holds 10 digits
+
+    /**
+     * The file layouts banks accept.
+     */
+    public enum Format {
+        FIXED_WIDTH,
+        CSV
+    }
+
+    private final Path file;
+    private final Path temp;
+    private final Writer writer;
+    private final Format format;
+    private final Function<Employee, String> accounts;
+    private final StringBuilder row = new StringBuilder(128);
+    private long recordCount;
+    private long totalAmount;
+    private long hashHigh;  // Hash total = hashHigh * 10^10 + hashLow, modulo 10^20
+    private long hashLow;
+    private long skipped;
+    private boolean finished;
+
+    /**
+     * Starts a credit file and writes its header record. The file itself appears only on {@link #finish()}.
+     *
+     * @param file The file to create or overwrite.
+     * @param format The layout.
+     * @param companyCode The company's code with the bank.
+     * @param creditDate The day the bank credits the accounts, normally the pay date.
+     * @param accounts Each employee's bank account number as digits, or null if none is on file.
+     * @throws IOException if the file cannot be created.
+     */
+    public BankDisbursementWriter(Path file, Format format, String companyCode, LocalDate creditDate,
+                                  Function<Employee, String> accounts) throws IOException {
+        this.file = file;
+        this.temp = file.resolveSibling(file.getFileName() + ".tmp");
+        this.writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(temp), StandardCharsets.US_ASCII), BUFFER_SIZE);
+        this.format = format;
+        this.accounts = accounts;
+        StringBuilder sb = row;
+        sb.setLength(0);
+        if (format == Format.FIXED_WIDTH) {
+            sb.append('H');
+            appendText(sb, companyCode, COMPANY_WIDTH);
+            sb.append(creditDate.format(FIXED_DATE));
+        } else {
+            sb.append("H,").append(ascii(companyCode)).append(',').append(creditDate.format(CSV_DATE));
+        }
+        sb.append('\n');
+        try {
+            writer.append(sb);
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Streams the credit lines of a finalized run to a file, in employee-number order.
+     *
+     * @return The file's control totals.
+     * @throws IOException if the file cannot be written.
+     * @throws IllegalArgumentException if an employee with pay has no account; no file is written.
+     */
+    public static ControlTotals export(PayrollBatch.BatchResult run, Path file, Format format, String companyCode,
+                                       LocalDate creditDate, Function<Employee, String> accounts) throws IOException {
+        try (BankDisbursementWriter bank = new BankDisbursementWriter(file, format, companyCode, creditDate, accounts)) {
+            run.forEach(bank::write);
+            bank.finish();
+            return bank.getControlTotals();
+        }
+    }
+
+    /**
+     * Appends one employee's credit line, or skips it if there is nothing to pay.
+     *
+     * @throws IllegalArgumentException if the employee has pay but no account on file, or the account is not
+     *         1 to 16 digits.
+     */
+    public void write(Employee employee, SalaryComputation.PayrollResult result) throws IOException {
+        if (finished) {
+            throw new IllegalStateException("Credit file already has its trailer");
+        }
+        long amount = result.getNetPay();
+        if (amount <= 0) {
+            skipped++;
+            return;
+        }
+        String account = accounts.apply(employee);
+        if (account == null || account.isEmpty()) {
+            throw new IllegalArgumentException("No bank account on file for employee " + employee.getEmployeeNumber());
+        }
+        if (!isAccountNumber(account)) {
+            throw new IllegalArgumentException("Bank account of employee " + employee.getEmployeeNumber()
+                + " is not 1 to " + ACCOUNT_WIDTH + " digits: " + account);
+        }
+        String name = employee.getLastName() + ", " + employee.getFirstName();
+        StringBuilder sb = row;
+        sb.setLength(0);
+        if (format == Format.FIXED_WIDTH) {
+            sb.append('D');
+            appendDigits(sb, account, ACCOUNT_WIDTH);
+            appendNumber(sb, amount, AMOUNT_WIDTH);
+            appendText(sb, name, NAME_WIDTH);
+        } else {
+            sb.append("D,").append(account).append(',');
+            appendPesos(sb, amount);
+            sb.append(',').append('"').append(ascii(name).replace("\"", "\"\"")).append('"');
+        }
+        sb.append('\n');
+        writer.append(sb);
+        recordCount++;
+        totalAmount += amount;
+        addToHash(Long.parseLong(account));
+    }
+
+    // Adds an account (below 10^16) to the hash total, dropping whatever carries past 20 digits
+    private void addToHash(long account) {
+        hashLow += account % HASH_HALF;
+        hashHigh = (hashHigh + account / HASH_HALF + hashLow / HASH_HALF) % HASH_HALF;
+        hashLow %= HASH_HALF;
+    }
+
+    // The hash total's digits, without leading zeros
+    private String hashTotal() {
+        if (hashHigh == 0) {
+            return Long.toString(hashLow);
+        }
+        String low = Long.toString(hashLow);
+        return hashHigh + "0000000000".substring(low.length()) + low;
+    }
+
+    private static boolean isAccountNumber(String account) {
+        if (account.isEmpty() || account.length() > ACCOUNT_WIDTH) {
+            return false;
+        }
+        for (int i = 0; i < account.length(); i++) {
+            char c = account.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads a bank account mapping: a CSV with a header row, then `employee number,account number` per line.
+     *
+     * @param file The mapping file.
+     * @return Each employee's account number as written in the file, leading zeros included, or null for
+     *         employees not in the file.
+     * @throws IOException if the file cannot be read, or a line is malformed or repeats an employee.
+     */
+    public static Function<Employee, String> readAccounts(Path file) throws IOException {
+        Map<Integer, String> accounts = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            reader.readLine(); // Skip header row
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] fields = line.split(",");
+                int empNo;
+                String account;
+                try {
+                    if (fields.length != 2) {
+                        throw new NumberFormatException("expected 2 fields, found " + fields.length);
+                    }
+                    empNo = Integer.parseInt(fields[0].trim());
+                    account = fields[1].trim();
+                    if (!isAccountNumber(account)) {
+                        throw new NumberFormatException("account is not 1 to " + ACCOUNT_WIDTH + " digits: " + account);
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IOException("Malformed bank account on line " + lineNumber + " of " + file + ": " + e.getMessage(), e);
+                }
+                if (accounts.put(empNo, account) != null) {
+                    throw new IOException("Employee " + empNo + " has more than one bank account in " + file);
+                }
+            }
+        }
+        return employee -> accounts.get(employee.getEmployeeNumber());
+    }
+
+    /**
+     * Writes the trailer record and moves the complete file into place. Call it once every line is written;
+     * afterwards {@link #close()} has nothing left to do.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        StringBuilder sb = row;
+        sb.setLength(0);
+        if (format == Format.FIXED_WIDTH) {
+            sb.append('T');
+            appendNumber(sb, recordCount, 8);
+            appendNumber(sb, totalAmount, 17);
+            appendDigits(sb, hashTotal(), HASH_WIDTH);
+        } else {
+            sb.append("T,").append(recordCount).append(',');
+            appendPesos(sb, totalAmount);
+            sb.append(',').append(hashTotal());
+        }
+        sb.append('\n');
+        writer.append(sb);
+        writer.close();
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        finished = true;
+    }
+
+    /**
+     * The totals of the lines written so far.
+     */
+    public ControlTotals getControlTotals() {
+        return new ControlTotals(recordCount, totalAmount, hashTotal(), skipped);
+    }
+
+    /**
+     * Discards the file unless {@link #finish()} completed it.
+     */
+    @Override
+    public void close() throws IOException {
+        if (finished) {
+            return;
+        }
+        try {
+            writer.close();
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    // Right-aligned, zero-padded; a number too wide for its field is an error, never silently truncated
+    private static void appendNumber(StringBuilder sb, long value, int width) {
+        String digits = Long.toString(value);
+        if (value < 0 || digits.length() > width) {
+            throw new IllegalArgumentException("Value " + value + " does not fit a " + width + "-digit field");
+        }
+        for (int i = digits.length(); i < width; i++) {
+            sb.append('0');
+        }
+        sb.append(digits);
+    }
+
+    // Right-aligned, zero-padded; the caller has checked that `digits` fits
+    private static void appendDigits(StringBuilder sb, String digits, int width) {
+        for (int i = digits.length(); i < width; i++) {
+            sb.append('0');
+        }
+        sb.append(digits);
+    }
+
+    // Left-aligned, space-padded, cut to the field width
+    private static void appendText(StringBuilder sb, String value, int width) {
+        String text = ascii(value).toUpperCase(Locale.ROOT);
+        int length = Math.min(width, text.length());
+        sb.append(text, 0, length);
+        for (int i = length; i < width; i++) {
+            sb.append(' ');
+        }
+    }
+
+    // 123456 centavos -> 1234.56
+    private static void appendPesos(StringBuilder sb, long centavos) {
+        long fraction = centavos % 100;
+        sb.append(centavos / 100).append('.');
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        sb.append(fraction);
+    }
+
+    // Bank files are ASCII: strip accents (Peña -> Pena) and replace anything else, including line breaks
+    private static String ascii(String value) {
+        if (value == null) {
+            return "";
+        }
+        boolean plain = true;
+        for (int i = 0; i < value.length() && plain; i++) {
+            char c = value.charAt(i);
+            plain = c >= ' ' && c < 0x7F;
+        }
+        if (plain) {
+            return value;
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            sb.append(c >= ' ' && c < 0x7F ? c : ' ');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Control and hash totals of a credit file, for the bank's and the auditors' reconciliation.
+     */
+    public static class ControlTotals {
+
+        private final long recordCount;
+        private final long totalAmount;
+        private final String hashTotal;
+        private final long skipped;
+
+        ControlTotals(long recordCount, long totalAmount, String hashTotal, long skipped) {
+            this.recordCount = recordCount;
+            this.totalAmount = totalAmount;
+            this.hashTotal = hashTotal;
+            this.skipped = skipped;
+        }
+
+        /** Credit lines written. */
+        public long getRecordCount() { return recordCount; }
+        /** Sum of all credited amounts, in centavos. */
+        public long getTotalAmount() { return totalAmount; }
+        /** Sum of all account numbers, modulo 10^20, as digits without leading zeros. */
+        public String getHashTotal() { return hashTotal; }
+        /** Employees with no positive net pay, who got no line. */
+        public long getSkipped() { return skipped; }
+    }
+}
@@ -0,0 +1,343 @@
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.GridLayout;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JCheckBox;
+import javax.swing.JComboBox;
+import javax.swing.JFileChooser;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.JTextField;
+import javax.swing.SwingWorker;
+
+/**
+ * "Finalize payroll" screen: pick a pay period and a folder, and the period is run through {@link PayrollBatch}
+ * (checkpointed, and posted to the year-to-date ledger), then its payslip PDFs, payroll register and, optionally,
+ * bank credit file are written from that run's results with a progress bar, off the Event Dispatch Thread.
+ * The run can be cancelled: payroll already checkpointed resumes on the next run, and payslips already
+ * written are kept.
+ */
+public class BulkPayslips extends javax.swing.JFrame {
+    private static final String[] CUTOFFS = {"Whole month", "1st cutoff", "2nd cutoff"};
+    private static final int COMPUTING = 0;
+    private static final int WRITING = 1;
+
+    private final com.toedter.calendar.JMonthChooser monthSelect = new com.toedter.calendar.JMonthChooser();
+    private final com.toedter.calendar.JYearChooser yearSelect = new com.toedter.calendar.JYearChooser();
+    private final JComboBox<String> cutoffSelect = new JComboBox<>(CUTOFFS);
+    private final JTextField folderField = new JTextField(Paths.get("payslips").toAbsolutePath().toString());
+    private final JCheckBox registerCheck = new JCheckBox("Write the payroll register", true);
+    private final JCheckBox bankCheck = new JCheckBox("Write the bank credit file");
+    private final JTextField accountsField = new JTextField();
+    private final JTextField companyField = new JTextField();
+    private final JComboBox<BankDisbursementWriter.Format> formatSelect = new JComboBox<>(BankDisbursementWriter.Format.values());
+    private final JButton generateButton = new JButton("Finalize");
+    private final JButton cancelButton = new JButton("Cancel");
+    private final JProgressBar progressBar = new JProgressBar();
+    private final JLabel statusLabel = new JLabel(" ");
+
+    private final Object finalizingLock = new Object();
+    private Thread finalizing; // The worker while it runs PayrollBatch, which stops when interrupted
+    private volatile PayslipBatch.Job job;
+    private volatile boolean cancelRequested; // Cancel pressed before the job existed, e.g. while payroll runs
+
+    public BulkPayslips() {
+        initComponents();
+    }
+
+    /**
+     * Opens the screen with a month (cutoff 0) or a cutoff already selected, e.g. to resume an unfinished run.
+     */
+    public BulkPayslips(YearMonth yearMonth, int cutoff) {
+        initComponents();
+        monthSelect.setMonth(yearMonth.getMonthValue() - 1); // JMonthChooser months are 0-based
+        yearSelect.setYear(yearMonth.getYear());
+        cutoffSelect.setSelectedIndex(cutoff);
+    }
+
+    /**
+     * Finalizes the selected period, as if Finalize had been pressed.
+     */
+    public void startFinalize() {
+        generateButtonActionPerformed();
+    }
+
+    // Built by hand rather than in the form designer, like WhatIfSimulator
+    private void initComponents() {
+        setDefaultCloseOperation(javax.swing.WindowConstants.DISPOSE_ON_CLOSE);
+        setTitle("MotorPH Finalize Payroll");
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                cancelButtonActionPerformed(); // Closing the window must not leave the batch running
+            }
+        });
+
+        JPanel form = new JPanel(new GridLayout(0, 2, 8, 6));
+        form.setBorder(BorderFactory.createTitledBorder("Payroll"));
+        JPanel period = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        period.add(monthSelect);
+        period.add(yearSelect);
+        form.add(new JLabel("Pay period"));
+        form.add(period);
+        form.add(new JLabel("Cutoff"));
+        form.add(cutoffSelect);
+        JPanel folder = new JPanel(new BorderLayout(4, 0));
+        JButton browseButton = new JButton("Browse...");
+        browseButton.addActionListener(evt -> browseButtonActionPerformed());
+        folder.add(folderField, BorderLayout.CENTER);
+        folder.add(browseButton, BorderLayout.EAST);
+        form.add(new JLabel("Save to folder"));
+        form.add(folder);
+        form.add(registerCheck);
+        form.add(bankCheck);
+        JPanel accounts = new JPanel(new BorderLayout(4, 0));
+        JButton accountsBrowseButton = new JButton("Browse...");
+        accountsBrowseButton.addActionListener(evt -> accountsBrowseButtonActionPerformed());
+        accounts.add(accountsField, BorderLayout.CENTER);
+        accounts.add(accountsBrowseButton, BorderLayout.EAST);
+        form.add(new JLabel("Bank accounts file (employee #, account #)"));
+        form.add(accounts);
+        form.add(new JLabel("Bank company code"));
+        form.add(companyField);
+        form.add(new JLabel("Bank file format"));
+        form.add(formatSelect);
+
+        progressBar.setStringPainted(true);
+        JPanel progress = new JPanel(new BorderLayout(0, 4));
+        progress.setBorder(BorderFactory.createEmptyBorder(6, 6, 0, 6));
+        progress.add(progressBar, BorderLayout.NORTH);
+        progress.add(statusLabel, BorderLayout.SOUTH);
+
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton closeButton = new JButton("Close");
+        closeButton.addActionListener(evt -> {
+            cancelButtonActionPerformed();
+            dispose();
+        });
+        generateButton.addActionListener(evt -> generateButtonActionPerformed());
+        cancelButton.addActionListener(evt -> cancelButtonActionPerformed());
+        cancelButton.setEnabled(false);
+        buttons.add(generateButton);
+        buttons.add(cancelButton);
+        buttons.add(closeButton);
+
+        getContentPane().setLayout(new BorderLayout());
+        getContentPane().add(form, BorderLayout.NORTH);
+        getContentPane().add(progress, BorderLayout.CENTER);
+        getContentPane().add(buttons, BorderLayout.SOUTH);
+        setSize(620, 400);
+        setLocationRelativeTo(null);
+    }
+
+    private void browseButtonActionPerformed() {
+        JFileChooser chooser = new JFileChooser(folderField.getText());
+        chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+        if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+            folderField.setText(chooser.getSelectedFile().getAbsolutePath());
+        }
+    }
+
+    private void accountsBrowseButtonActionPerformed() {
+        JFileChooser chooser = new JFileChooser(accountsField.getText());
+        if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+            accountsField.setText(chooser.getSelectedFile().getAbsolutePath());
+        }
+    }
+
+    private void generateButtonActionPerformed() {
+        String folderText = folderField.getText().trim();
+        if (folderText.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Choose a folder for the payslips.", "Input Error", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        boolean writeBank = bankCheck.isSelected();
+        String accountsText = accountsField.getText().trim();
+        String companyCode = companyField.getText().trim();
+        if (writeBank && (accountsText.isEmpty() || companyCode.isEmpty())) {
+            JOptionPane.showMessageDialog(this, "The bank credit file needs the bank accounts file and the company code.",
+                "Input Error", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        Path folder = Paths.get(folderText);
+        // JMonthChooser months are 0-based
+        YearMonth yearMonth = YearMonth.of(yearSelect.getYear(), monthSelect.getMonth() + 1);
+        int cutoff = cutoffSelect.getSelectedIndex();
+        PayPeriod payPeriod = cutoff == 0 ? null : PayPeriod.of(yearMonth, cutoff);
+        boolean writeRegister = registerCheck.isSelected();
+        BankDisbursementWriter.Format format = (BankDisbursementWriter.Format) formatSelect.getSelectedItem();
+
+        cancelRequested = false;
+        generateButton.setEnabled(false);
+        cancelButton.setEnabled(true);
+        progressBar.setValue(0);
+        statusLabel.setText("Loading attendance...");
+        long start = System.nanoTime();
+        new SwingWorker<Finalized, int[]>() {
+            private int shownPhase = -1;
+
+            @Override
+            protected Finalized doInBackground() throws Exception {
+                List<Employee> employees = EmployeeFileHandler.loadEmployees();
+                // Read before computing, so a bad accounts file fails fast
+                Function<Employee, String> accounts = writeBank ? BankDisbursementWriter.readAccounts(Paths.get(accountsText)) : null;
+
+                PayrollBatch.ProgressListener payrollListener = (done, total) -> publish(new int[]{COMPUTING, done, total});
+                PayrollBatch.BatchResult run;
+                synchronized (finalizingLock) {
+                    if (cancelRequested) {
+                        throw new CancellationException();
+                    }
+                    finalizing = Thread.currentThread();
+                }
+                try {
+                    run = payPeriod == null
+                        ? PayrollBatch.run(employees, yearMonth, payrollListener)
+                        : PayrollBatch.run(employees, payPeriod, payrollListener);
+                } finally {
+                    synchronized (finalizingLock) {
+                        finalizing = null;
+                        Thread.interrupted(); // A cancel that arrived as the run finished is handled below
+                    }
+                }
+                if (cancelRequested) {
+                    throw new CancellationException();
+                }
+                if (run.getDigestCheck() == PayrollBatch.DigestCheck.MISMATCH) {
+                    throw new IllegalStateException("the payroll run does not reproduce its recorded results; nothing was written");
+                }
+
+                Files.createDirectories(folder);
+                String periodKey = payPeriod == null ? yearMonth.toString() : "period-" + payPeriod.getId();
+                if (writeRegister) {
+                    PayrollRegisterWriter.export(run, folder.resolve("payroll-register-" + periodKey + ".csv"), false);
+                }
+                BankDisbursementWriter.ControlTotals bank = null;
+                if (writeBank) {
+                    LocalDate creditDate = (payPeriod == null ? PayPeriod.of(yearMonth, 2) : payPeriod).getPayDate();
+                    Path file = folder.resolve("bank-credit-" + periodKey
+                        + (format == BankDisbursementWriter.Format.CSV ? ".csv" : ".txt"));
+                    bank = BankDisbursementWriter.export(run, file, format, companyCode, creditDate, accounts);
+                }
+
+                job = PayslipBatch.start(run, folder, (done, total) -> publish(new int[]{WRITING, done, total}));
+                if (cancelRequested) {
+                    job.cancel(); // Cancel arrived before there was a job to cancel
+                }
+                return new Finalized(run, bank, job.await());
+            }
+
+            @Override
+            protected void process(List<int[]> updates) {
+                int[] latest = updates.get(updates.size() - 1); // Only the newest phase matters
+                progressBar.setMaximum(latest[2]);
+                int count = latest[1];
+                if (latest[0] == WRITING) {
+                    // Payslip counts come from several threads and can arrive out of order; never move backwards
+                    for (int[] update : updates) {
+                        if (update[0] == WRITING) {
+                            count = Math.max(count, update[1]);
+                        }
+                    }
+                    if (shownPhase == WRITING) {
+                        count = Math.max(count, progressBar.getValue());
+                    }
+                }
+                shownPhase = latest[0];
+                progressBar.setValue(count);
+                if (latest[0] == COMPUTING) {
+                    statusLabel.setText(String.format("Computing payroll: %,d of %,d employees", latest[1], latest[2]));
+                    return;
+                }
+                double minutes = (System.nanoTime() - start) / 60e9;
+                statusLabel.setText(String.format("%,d of %,d payslips (%,.0f per minute)", count, latest[2],
+                    minutes == 0 ? 0 : count / minutes));
+            }
+
+            @Override
+            protected void done() {
+                job = null;
+                generateButton.setEnabled(true);
+                cancelButton.setEnabled(false);
+                try {
+                    showResult(get());
+                } catch (ExecutionException e) {
+                    // The batch's own failure arrives wrapped once more by the worker
+                    Throwable cause = e.getCause() instanceof ExecutionException ? e.getCause().getCause() : e.getCause();
+                    if (cancelRequested || cause instanceof CancellationException) {
+                        statusLabel.setText("Cancelled; payroll resumes from its checkpoint and payslips already written were kept");
+                        return;
+                    }
+                    statusLabel.setText(" ");
+                    JOptionPane.showMessageDialog(BulkPayslips.this, "Finalizing payroll failed: " + cause.getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }.execute();
+    }
+
+    private void cancelButtonActionPerformed() {
+        synchronized (finalizingLock) {
+            cancelRequested = true;
+            if (finalizing != null) {
+                finalizing.interrupt(); // PayrollBatch stops after its current chunk
+            }
+        }
+        PayslipBatch.Job running = job;
+        if (running != null) {
+            running.cancel();
+        }
+    }
+
+    private void showResult(Finalized finalized) {
+        PayslipBatch.Result result = finalized.payslips;
+        statusLabel.setText(String.format("Payroll for %,d employees finalized; %,d payslips written to %s in %.1f s",
+            finalized.run.getEmployees().size(), result.getWritten(), result.getFolder(), result.getElapsedNanos() / 1e9));
+        if (finalized.bank != null) {
+            // The control totals go to the bank with the file, so show them once
+            JOptionPane.showMessageDialog(this, String.format("Bank credit file written: %,d lines, total %s, hash total %s",
+                finalized.bank.getRecordCount(), Money.format(finalized.bank.getTotalAmount()), finalized.bank.getHashTotal()),
+                "Bank Credit File", JOptionPane.INFORMATION_MESSAGE);
+        }
+        if (!result.getFailed().isEmpty()) {
+            JOptionPane.showMessageDialog(this, "Could not render payslips for employees " + result.getFailed(),
+                "Payslips", JOptionPane.WARNING_MESSAGE);
+        }
+    }
+
+    // What one finalize wrote
+    private static final class Finalized {
+        final PayrollBatch.BatchResult run;
+        final BankDisbursementWriter.ControlTotals bank;
+        final PayslipBatch.Result payslips;
+
+        Finalized(PayrollBatch.BatchResult run, BankDisbursementWriter.ControlTotals bank, PayslipBatch.Result payslips) {
+            this.run = run;
+            this.bank = bank;
+            this.payslips = payslips;
+        }
+    }
+
+    /**
+     * @param args the command line arguments
+     */
+    public static void main(String args[]) {
+        java.awt.EventQueue.invokeLater(() -> new BulkPayslips().setVisible(true));
+    }
+}
@@ -1,6 +1,9 @@
+import java.math.RoundingMode;
+
 /**
  * Represents an Employee object with relevant attributes and methods.
  * Stores employee details such as employee number, name, phone number, status, position, supervisor, salary, and allowances.
+ * Money fields are held as exact `long` centavos (see {@link Money}); the `double` getters and setters convert at the edge.
  */
 public class Employee {
     private int employeeNumber;
@@ -15,13 +18,13 @@ public class Employee {
     private String philHealthNumber;
     private String tinNumber;
     private String pagIbigNumber;
-    private double basicSalary;
-    private double riceSubsidy;
-    private double phoneAllowance;
-    private double clothingAllowance;
-    private double grossSemiMonthlyRate;
-    private double hourlyRate;
-    private double withholdingTax;
+    private long basicSalary;
+    private long riceSubsidy;
+    private long phoneAllowance;
+    private long clothingAllowance;
+    private long grossSemiMonthlyRate;
+    private long hourlyRate;
+    private long withholdingTax;
     private String birthday;
 
     /**
@@ -43,6 +46,25 @@ public class Employee {
         this.philHealthNumber = philHealthNumber;
         this.tinNumber = tinNumber;
         this.pagIbigNumber = pagIbigNumber;
+        this.basicSalary = Money.ofDouble(basicSalary, RoundingMode.HALF_UP);
+        this.riceSubsidy = Money.ofDouble(riceSubsidy, RoundingMode.HALF_UP);
+        this.phoneAllowance = Money.ofDouble(phoneAllowance, RoundingMode.HALF_UP);
+        this.clothingAllowance = Money.ofDouble(clothingAllowance, RoundingMode.HALF_UP);
+        this.grossSemiMonthlyRate = Money.ofDouble(grossSemiMonthlyRate, RoundingMode.HALF_UP);
+        this.hourlyRate = Money.ofDouble(hourlyRate, RoundingMode.HALF_UP);
+        this.withholdingTax = Money.ofDouble(withholdingTax, RoundingMode.HALF_UP);
+        this.birthday = birthday; // Ensure Birthday is last
+    }
+
+    /**
+     * Constructor taking money fields in centavos, used when amounts are parsed exactly from the CSV.
+     */
+    public Employee(int employeeNumber, String lastName, String firstName, String phoneNumber, String status, String position, String supervisor,
+                String address, String sssNumber, String philHealthNumber, String tinNumber, String pagIbigNumber,
+                long basicSalary, long riceSubsidy, long phoneAllowance, long clothingAllowance,
+                long grossSemiMonthlyRate, long hourlyRate, long withholdingTax, String birthday) {
+        this(employeeNumber, lastName, firstName, phoneNumber, status, position, supervisor, address,
+            sssNumber, philHealthNumber, tinNumber, pagIbigNumber, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, 0.0, birthday);
         this.basicSalary = basicSalary;
         this.riceSubsidy = riceSubsidy;
         this.phoneAllowance = phoneAllowance;
@@ -50,7 +72,6 @@ public class Employee {
         this.grossSemiMonthlyRate = grossSemiMonthlyRate;
         this.hourlyRate = hourlyRate;
         this.withholdingTax = withholdingTax;
-        this.birthday = birthday; // Ensure Birthday is last
     }
 
     // Getter Methods
@@ -66,13 +87,20 @@ public class Employee {
     public String getPhilHealthNumber() { return philHealthNumber; }
     public String getTinNumber() { return tinNumber; }
     public String getPagIbigNumber() { return pagIbigNumber; }
-    public double getBasicSalary() { return basicSalary; }
-    public double getRiceSubsidy() { return riceSubsidy; }
-    public double getPhoneAllowance() { return phoneAllowance; }
-    public double getClothingAllowance() { return clothingAllowance; }
-    public double getGrossSemiMonthlyRate() { return grossSemiMonthlyRate; }
-    public double getHourlyRate() { return hourlyRate; }
-    public double getWithholdingTax() { return withholdingTax; }
+    public double getBasicSalary() { return Money.toDouble(basicSalary); }
+    public long getBasicSalaryCentavos() { return basicSalary; }
+    public double getRiceSubsidy() { return Money.toDouble(riceSubsidy); }
+    public long getRiceSubsidyCentavos() { return riceSubsidy; }
+    public double getPhoneAllowance() { return Money.toDouble(phoneAllowance); }
+    public long getPhoneAllowanceCentavos() { return phoneAllowance; }
+    public double getClothingAllowance() { return Money.toDouble(clothingAllowance); }
+    public long getClothingAllowanceCentavos() { return clothingAllowance; }
+    public double getGrossSemiMonthlyRate() { return Money.toDouble(grossSemiMonthlyRate); }
+    public long getGrossSemiMonthlyRateCentavos() { return grossSemiMonthlyRate; }
+    public double getHourlyRate() { return Money.toDouble(hourlyRate); }
+    public long getHourlyRateCentavos() { return hourlyRate; }
+    public double getWithholdingTax() { return Money.toDouble(withholdingTax); }
+    public long getWithholdingTaxCentavos() { return withholdingTax; }
     public String getBirthday() { return birthday; }
 
     // Setter Methods
@@ -88,17 +116,28 @@ public class Employee {
     public void setPhilHealthNumber(String philHealthNumber) { this.philHealthNumber = philHealthNumber; }
     public void setTinNumber(String tinNumber) { this.tinNumber = tinNumber; }
     public void setPagIbigNumber(String pagIbigNumber) { this.pagIbigNumber = pagIbigNumber; }
-    public void setBasicSalary(double basicSalary) { this.basicSalary = basicSalary; }
-    public void setRiceSubsidy(double riceSubsidy) { this.riceSubsidy = riceSubsidy; }
-    public void setPhoneAllowance(double phoneAllowance) { this.phoneAllowance = phoneAllowance; }
-    public void setClothingAllowance(double clothingAllowance) { this.clothingAllowance = clothingAllowance; }
-    public void setGrossSemiMonthlyRate(double grossSemiMonthlyRate) { this.grossSemiMonthlyRate = grossSemiMonthlyRate; }
-    public void setHourlyRate(double hourlyRate) { this.hourlyRate = hourlyRate; }
-    public void setWithholdingTax(double withholdingTax) { this.withholdingTax = withholdingTax; }
+    public void setBasicSalary(double basicSalary) { this.basicSalary = Money.ofDouble(basicSalary, RoundingMode.HALF_UP); }
+    public void setBasicSalaryCentavos(long basicSalary) { this.basicSalary = basicSalary; }
+    public void setRiceSubsidy(double riceSubsidy) { this.riceSubsidy = Money.ofDouble(riceSubsidy, RoundingMode.HALF_UP); }
+    public void setRiceSubsidyCentavos(long riceSubsidy) { this.riceSubsidy = riceSubsidy; }
+    public void setPhoneAllowance(double phoneAllowance) { this.phoneAllowance = Money.ofDouble(phoneAllowance, RoundingMode.HALF_UP); }
+    public void setPhoneAllowanceCentavos(long phoneAllowance) { this.phoneAllowance = phoneAllowance; }
+    public void setClothingAllowance(double clothingAllowance) { this.clothingAllowance = Money.ofDouble(clothingAllowance, RoundingMode.HALF_UP); }
+    public void setClothingAllowanceCentavos(long clothingAllowance) { this.clothingAllowance = clothingAllowance; }
+    public void setGrossSemiMonthlyRate(double grossSemiMonthlyRate) { this.grossSemiMonthlyRate = Money.ofDouble(grossSemiMonthlyRate, RoundingMode.HALF_UP); }
+    public void setGrossSemiMonthlyRateCentavos(long grossSemiMonthlyRate) { this.grossSemiMonthlyRate = grossSemiMonthlyRate; }
+    public void setHourlyRate(double hourlyRate) { this.hourlyRate = Money.ofDouble(hourlyRate, RoundingMode.HALF_UP); }
+    public void setHourlyRateCentavos(long hourlyRate) { this.hourlyRate = hourlyRate; }
+    public void setWithholdingTax(double withholdingTax) { this.withholdingTax = Money.ofDouble(withholdingTax, RoundingMode.HALF_UP); }
+    public void setWithholdingTaxCentavos(long withholdingTax) { this.withholdingTax = withholdingTax; }
     public void setBirthday(String birthday) { this.birthday = birthday; }
 
     // ✅ New Method: Compute Total Allowances
     public double getTotalAllowances() {
+        return Money.toDouble(getTotalAllowancesCentavos());
+    }
+
+    public long getTotalAllowancesCentavos() {
         return riceSubsidy + phoneAllowance + clothingAllowance;
     }
 
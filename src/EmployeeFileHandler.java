@@ -53,14 +53,14 @@ public class EmployeeFileHandler {
                     String pagIbigNumber = rowData[11].trim().isEmpty() ? "NA" : rowData[11].trim();
                     String birthday = rowData[19].trim().isEmpty() ? "NA" : rowData[19].trim();
 
-                    // Parse numeric fields using a helper method to handle errors.
-                    double basicSalary = parseDouble(rowData[12]);
-                    double riceSubsidy = parseDouble(rowData[13]);
-                    double phoneAllowance = parseDouble(rowData[14]);
-                    double clothingAllowance = parseDouble(rowData[15]);
-                    double grossSemiMonthlyRate = parseDouble(rowData[16]);
-                    double hourlyRate = parseDouble(rowData[17]);
-                    double withholdingTax = parseDouble(rowData[18]);
+                    // Parse money fields exactly into centavos using a helper method to handle errors.
+                    long basicSalary = parseCentavos(rowData[12]);
+                    long riceSubsidy = parseCentavos(rowData[13]);
+                    long phoneAllowance = parseCentavos(rowData[14]);
+                    long clothingAllowance = parseCentavos(rowData[15]);
+                    long grossSemiMonthlyRate = parseCentavos(rowData[16]);
+                    long hourlyRate = parseCentavos(rowData[17]);
+                    long withholdingTax = parseCentavos(rowData[18]);
 
                     // Create a new Employee object and add to the list.
                     employees.add(new Employee(employeeNumber, lastName, firstName, phoneNumber,
@@ -115,6 +115,7 @@ public class EmployeeFileHandler {
         List<Employee> employees = loadEmployees(); // Load all employees.
         employees.removeIf(emp -> emp.getEmployeeNumber() == empNum); // Remove the matching employee.
         writeEmployeeListToFile(employees); // Write the modified list back to the file.
+        invalidatePayroll(empNum);
     }
 
     /**
@@ -151,6 +152,15 @@ public class EmployeeFileHandler {
         }
 
         writeEmployeeListToFile(employees); // Re-write the updated list to the file.
+        invalidatePayroll(updatedEmployee.getEmployeeNumber());
+    }
+
+    // Cached payslips for this employee are stale once their record changes.
+    private static void invalidatePayroll(int empNum) {
+        PayrollCache cache = PayrollCache.sharedIfLoaded();
+        if (cache != null) {
+            cache.invalidateEmployee(empNum);
+        }
     }
 
     /**
@@ -186,24 +196,24 @@ public class EmployeeFileHandler {
             String.valueOf(employee.getEmployeeNumber()), employee.getLastName(), employee.getFirstName(),
             employee.getPhoneNumber(), employee.getStatus(), employee.getPosition(), employee.getSupervisor(), employee.getAddress(),
             employee.getSssNumber(), employee.getPhilHealthNumber(), employee.getTinNumber(), employee.getPagIbigNumber(),
-            String.valueOf(employee.getBasicSalary()), String.valueOf(employee.getRiceSubsidy()), String.valueOf(employee.getPhoneAllowance()),
-            String.valueOf(employee.getClothingAllowance()), String.valueOf(employee.getGrossSemiMonthlyRate()),
-            String.valueOf(employee.getHourlyRate()), String.valueOf(employee.getWithholdingTax()), employee.getBirthday()
+            Money.toPlainString(employee.getBasicSalaryCentavos()), Money.toPlainString(employee.getRiceSubsidyCentavos()), Money.toPlainString(employee.getPhoneAllowanceCentavos()),
+            Money.toPlainString(employee.getClothingAllowanceCentavos()), Money.toPlainString(employee.getGrossSemiMonthlyRateCentavos()),
+            Money.toPlainString(employee.getHourlyRateCentavos()), Money.toPlainString(employee.getWithholdingTaxCentavos()), employee.getBirthday()
         };
     }
 
     /**
-     * Safely parses a `double` value, returning `0.0` if the input is invalid, empty, or "N/A".
+     * Safely parses a peso amount into exact centavos, returning `0` if the input is invalid, empty, or "N/A".
      * @param value The string to parse.
-     * @return The parsed double value, or `0.0` if parsing fails.
+     * @return The amount in centavos, or `0` if parsing fails.
      */
-    private static double parseDouble(String value) {
+    private static long parseCentavos(String value) {
         try {
-            // If value is "N/A" (case-insensitive) or empty, return 0.0. Otherwise, parse as double.
-            return (value.trim().equalsIgnoreCase("N/A") || value.trim().isEmpty()) ? 0.0 : Double.parseDouble(value.trim());
-        } catch (NumberFormatException e) {
+            // If value is "N/A" (case-insensitive) or empty, return 0. Otherwise, parse exactly.
+            return (value.trim().equalsIgnoreCase("N/A") || value.trim().isEmpty()) ? 0 : Money.parse(value);
+        } catch (NumberFormatException | ArithmeticException e) {
             System.err.println("ERROR: Invalid number format detected: " + value);
-            return 0.0; // Return 0.0 on parsing error.
+            return 0; // Return 0 on parsing error.
         }
     }
 }
\ No newline at end of file
@@ -32,6 +32,33 @@ public class MainMenu extends javax.swing.JFrame {
     public MainMenu() {
         initComponents(); // This method is typically auto-generated by GUI builders (like NetBeans)
                           // and sets up all the UI elements (buttons, labels, etc.).
+        java.awt.EventQueue.invokeLater(this::offerToResumePayroll); // Once the menu is on screen
+    }
+
+    /**
+     * Offers to resume payroll runs that were interrupted, e.g. by closing the app mid-run.
+     * Each resumed run picks up from its checkpoint in its own finalize window.
+     */
+    private void offerToResumePayroll() {
+        java.util.List<PayrollBatch.Unfinished> unfinished = PayrollBatch.findUnfinished();
+        if (unfinished.isEmpty()) {
+            return;
+        }
+        StringBuilder periods = new StringBuilder();
+        for (PayrollBatch.Unfinished run : unfinished) {
+            periods.append("\n  ").append(run.getLabel());
+        }
+        int choice = JOptionPane.showConfirmDialog(this,
+            "Payroll for these periods was interrupted before it finished:" + periods + "\n\nResume now?",
+            "Unfinished Payroll", JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
+        if (choice != JOptionPane.YES_OPTION) {
+            return; // Finalizing the period later resumes it as well
+        }
+        for (PayrollBatch.Unfinished run : unfinished) {
+            BulkPayslips window = new BulkPayslips(run.getYearMonth(), run.getCutoff());
+            window.setVisible(true);
+            window.startFinalize();
+        }
     }
 
     /**
@@ -52,6 +79,8 @@ public class MainMenu extends javax.swing.JFrame {
         jButtonEmployee = new javax.swing.JButton();
         jButtonPayslip = new javax.swing.JButton();
         jButtonAttendance = new javax.swing.JButton();
+        jButtonWhatIf = new javax.swing.JButton();
+        jButtonThirteenth = new javax.swing.JButton();
         jButtonExit2 = new javax.swing.JButton();
 
         setDefaultCloseOperation(javax.swing.WindowConstants.EXIT_ON_CLOSE);
@@ -162,6 +191,28 @@ public class MainMenu extends javax.swing.JFrame {
             }
         });
 
+        jButtonWhatIf.setBackground(new java.awt.Color(14, 49, 113));
+        jButtonWhatIf.setFont(new java.awt.Font("Segoe UI", 1, 14)); // NOI18N
+        jButtonWhatIf.setForeground(new java.awt.Color(255, 255, 255));
+        jButtonWhatIf.setText("Payroll What-If");
+        jButtonWhatIf.setBorder(javax.swing.BorderFactory.createBevelBorder(javax.swing.border.BevelBorder.RAISED));
+        jButtonWhatIf.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                jButtonWhatIfActionPerformed(evt);
+            }
+        });
+
+        jButtonThirteenth.setBackground(new java.awt.Color(14, 49, 113));
+        jButtonThirteenth.setFont(new java.awt.Font("Segoe UI", 1, 14)); // NOI18N
+        jButtonThirteenth.setForeground(new java.awt.Color(255, 255, 255));
+        jButtonThirteenth.setText("13th Month Pay");
+        jButtonThirteenth.setBorder(javax.swing.BorderFactory.createBevelBorder(javax.swing.border.BevelBorder.RAISED));
+        jButtonThirteenth.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                jButtonThirteenthActionPerformed(evt);
+            }
+        });
+
         jButtonExit2.setBackground(new java.awt.Color(153, 0, 0));
         jButtonExit2.setForeground(new java.awt.Color(255, 255, 255));
         jButtonExit2.setText("Sign Out");
@@ -183,7 +234,9 @@ public class MainMenu extends javax.swing.JFrame {
                         .addGroup(jPanel2Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING, false)
                             .addComponent(jButtonEmployee, javax.swing.GroupLayout.DEFAULT_SIZE, 250, Short.MAX_VALUE)
                             .addComponent(jButtonPayslip, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
-                            .addComponent(jButtonAttendance, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)))
+                            .addComponent(jButtonAttendance, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(jButtonWhatIf, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)
+                            .addComponent(jButtonThirteenth, javax.swing.GroupLayout.DEFAULT_SIZE, javax.swing.GroupLayout.DEFAULT_SIZE, Short.MAX_VALUE)))
                     .addGroup(jPanel2Layout.createSequentialGroup()
                         .addGap(869, 869, 869)
                         .addComponent(jButtonExit2, javax.swing.GroupLayout.PREFERRED_SIZE, 85, javax.swing.GroupLayout.PREFERRED_SIZE)))
@@ -192,12 +245,16 @@ public class MainMenu extends javax.swing.JFrame {
         jPanel2Layout.setVerticalGroup(
             jPanel2Layout.createParallelGroup(javax.swing.GroupLayout.Alignment.LEADING)
             .addGroup(jPanel2Layout.createSequentialGroup()
-                .addGap(83, 83, 83)
+                .addGap(40, 40, 40)
                 .addComponent(jButtonEmployee, javax.swing.GroupLayout.PREFERRED_SIZE, 47, javax.swing.GroupLayout.PREFERRED_SIZE)
-                .addGap(65, 65, 65)
+                .addGap(30, 30, 30)
                 .addComponent(jButtonPayslip, javax.swing.GroupLayout.PREFERRED_SIZE, 47, javax.swing.GroupLayout.PREFERRED_SIZE)
-                .addGap(65, 65, 65)
+                .addGap(30, 30, 30)
                 .addComponent(jButtonAttendance, javax.swing.GroupLayout.PREFERRED_SIZE, 47, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addGap(30, 30, 30)
+                .addComponent(jButtonWhatIf, javax.swing.GroupLayout.PREFERRED_SIZE, 47, javax.swing.GroupLayout.PREFERRED_SIZE)
+                .addGap(30, 30, 30)
+                .addComponent(jButtonThirteenth, javax.swing.GroupLayout.PREFERRED_SIZE, 47, javax.swing.GroupLayout.PREFERRED_SIZE)
                 .addGap(18, 18, 18)
                 .addComponent(jButtonExit2, javax.swing.GroupLayout.PREFERRED_SIZE, 28, javax.swing.GroupLayout.PREFERRED_SIZE)
                 .addContainerGap())
@@ -251,12 +308,14 @@ public class MainMenu extends javax.swing.JFrame {
     private void jButtonPayslipActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButtonPayslipActionPerformed
     String input = JOptionPane.showInputDialog(
         this,
-        "Enter Employee Number:",
+        "Enter Employee Number (or ALL for every employee):",
         "Generate Payslip",
         JOptionPane.QUESTION_MESSAGE
     );
 
-    if (input != null && !input.trim().isEmpty()) {
+    if (input != null && input.trim().equalsIgnoreCase("all")) {
+        new BulkPayslips().setVisible(true); // Finalizes the period, then writes one PDF per employee in the background
+    } else if (input != null && !input.trim().isEmpty()) {
         System.out.println("Employee Number entered: " + input);
 
         // 🔽 Directly pass the Employee ID to Payslip
@@ -304,6 +363,75 @@ public class MainMenu extends javax.swing.JFrame {
     }
     }//GEN-LAST:event_jButtonAttendanceActionPerformed
 
+    private void jButtonWhatIfActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButtonWhatIfActionPerformed
+        new WhatIfSimulator().setVisible(true); // Read-only: never changes employee or attendance data
+    }//GEN-LAST:event_jButtonWhatIfActionPerformed
+
+    private void jButtonThirteenthActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_jButtonThirteenthActionPerformed
+        String input = JOptionPane.showInputDialog(this, "Enter the year:", "13th Month Pay", JOptionPane.QUESTION_MESSAGE);
+        if (input == null) {
+            return;
+        }
+        int year;
+        try {
+            year = Integer.parseInt(input.trim());
+        } catch (NumberFormatException e) {
+            JOptionPane.showMessageDialog(this, "Enter a year such as 2024.", "Input Error", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        // Reads the year's finalized payroll (ledger or checkpoints), so it runs off the Event Dispatch Thread
+        jButtonThirteenth.setEnabled(false);
+        new javax.swing.SwingWorker<ThirteenthMonthPay.Summary, Void>() {
+            private java.util.List<Employee> employees;
+
+            @Override
+            protected ThirteenthMonthPay.Summary doInBackground() throws Exception {
+                employees = EmployeeFileHandler.loadEmployees();
+                return ThirteenthMonthPay.forYear(employees, year);
+            }
+
+            @Override
+            protected void done() {
+                jButtonThirteenth.setEnabled(true);
+                try {
+                    saveThirteenthMonthPay(get(), employees);
+                } catch (java.util.concurrent.ExecutionException e) {
+                    System.err.println("Error computing 13th month pay: " + e.getCause().getMessage());
+                    JOptionPane.showMessageDialog(MainMenu.this, "Could not compute 13th month pay: " + e.getCause().getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }.execute();
+    }//GEN-LAST:event_jButtonThirteenthActionPerformed
+
+    // Shows the year's totals and saves the per-employee amounts where the user chooses
+    private void saveThirteenthMonthPay(ThirteenthMonthPay.Summary summary, java.util.List<Employee> employees) {
+        int monthsCovered = Integer.bitCount(summary.getMonthsCovered());
+        if (monthsCovered == 0) {
+            JOptionPane.showMessageDialog(this, "No payroll has been finalized for " + summary.getYear()
+                + ". Finalize its pay periods first (Payslip, then ALL).", "13th Month Pay", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        javax.swing.JFileChooser chooser = new javax.swing.JFileChooser();
+        chooser.setSelectedFile(new java.io.File("thirteenth-month-" + summary.getYear() + ".csv"));
+        String totals = String.format("13th month pay for %d: %,d employees, total %s, from %d finalized month(s).",
+            summary.getYear(), summary.getEntitlements().size(), Money.format(summary.getTotalAmount()), monthsCovered);
+        if (chooser.showSaveDialog(this) != javax.swing.JFileChooser.APPROVE_OPTION) {
+            JOptionPane.showMessageDialog(this, totals, "13th Month Pay", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        try {
+            ThirteenthMonthPay.export(summary, employees, chooser.getSelectedFile().toPath());
+            JOptionPane.showMessageDialog(this, totals + "\nSaved to " + chooser.getSelectedFile(),
+                "13th Month Pay", JOptionPane.INFORMATION_MESSAGE);
+        } catch (java.io.IOException e) {
+            System.err.println("Error saving 13th month pay: " + e.getMessage());
+            JOptionPane.showMessageDialog(this, "Could not save the file: " + e.getMessage(), "File Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     /**
      * @param args the command line arguments
      */
@@ -347,6 +475,8 @@ public class MainMenu extends javax.swing.JFrame {
     private javax.swing.JButton jButtonPayslip;
     private javax.swing.JButton jButtonTimein;
     private javax.swing.JButton jButtonTimeout;
+    private javax.swing.JButton jButtonThirteenth;
+    private javax.swing.JButton jButtonWhatIf;
     private javax.swing.JLabel jLabelTitle2;
     private javax.swing.JPanel jPanel1;
     private javax.swing.JPanel jPanel2;
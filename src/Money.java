@@ -0,0 +1,169 @@
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * `Money` is fixed-point peso arithmetic on `long` centavos (1 peso = 100 centavos).
+ * Amounts are plain `long` values rather than objects, so payroll loops over thousands of
+ * employees stay exact and allocate nothing; every operation that can produce a fraction of a
+ * centavo takes an explicit {@link RoundingMode}. Doubles only appear at the edges, for
+ * existing APIs and form fields, and are converted with {@link #ofDouble}.
+ */
+public final class Money {
+    public static final long CENTAVOS_PER_PESO = 100;
+
+    private Money() {
+    }
+
+    /**
+     * Parses a peso amount such as `535.71`, `"1,012.50"` or `-90000` exactly into centavos.
+     * Thousands separators and surrounding whitespace are ignored.
+     *
+     * @param value The amount in pesos, with at most two decimal places.
+     * @return The amount in centavos.
+     * @throws NumberFormatException if the value is not a valid amount.
+     */
+    public static long parse(String value) {
+        String s = value.trim();
+        int i = 0;
+        boolean negative = false;
+        if (i < s.length() && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            negative = s.charAt(i) == '-';
+            i++;
+        }
+
+        long pesos = 0;
+        long centavos = 0;
+        int digits = 0;
+        int decimals = -1; // Number of digits seen after the decimal point, -1 before it
+        for (; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (decimals < 0) {
+                    pesos = Math.addExact(Math.multiplyExact(pesos, 10), c - '0');
+                } else if (++decimals <= 2) {
+                    centavos = centavos * 10 + (c - '0');
+                } else if (c != '0') {
+                    throw new NumberFormatException("More than two decimal places: " + value);
+                }
+                digits++;
+            } else if (c == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (c != ',' || decimals >= 0) {
+                throw new NumberFormatException("Invalid amount: " + value);
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Invalid amount: " + value);
+        }
+        if (decimals == 1) {
+            centavos *= 10; // "12.5" is 12.50
+        }
+
+        long amount = Math.addExact(Math.multiplyExact(pesos, CENTAVOS_PER_PESO), centavos);
+        return negative ? -amount : amount;
+    }
+
+    /**
+     * Converts a peso amount held as a `double` (a form field, a legacy setter) to centavos.
+     * Rounds the shortest decimal form of the double, so 1.005 is treated as typed rather than as
+     * 1.00499999... Only used at the edges, never inside a payroll loop.
+     */
+    public static long ofDouble(double pesos, RoundingMode mode) {
+        return BigDecimal.valueOf(pesos).movePointRight(2).setScale(0, mode).longValueExact();
+    }
+
+    /**
+     * Converts centavos to pesos for display or for APIs that still take `double`.
+     */
+    public static double toDouble(long centavos) {
+        return centavos / (double) CENTAVOS_PER_PESO;
+    }
+
+    /**
+     * Multiplies an amount by `numerator / denominator`, rounding once at the end.
+     * For example, pay for a number of minutes at an hourly rate is `multiply(rate, minutes, 60, mode)`.
+     */
+    public static long multiply(long centavos, long numerator, long denominator, RoundingMode mode) {
+        return divide(Math.multiplyExact(centavos, numerator), denominator, mode);
+    }
+
+    /**
+     * Applies a rate in basis points (1/100 of a percent, so 3% is 300).
+     */
+    public static long percent(long centavos, long basisPoints, RoundingMode mode) {
+        return divide(Math.multiplyExact(centavos, basisPoints), 10_000, mode);
+    }
+
+    /**
+     * Integer division with an explicit rounding mode.
+     */
+    public static long divide(long dividend, long divisor, RoundingMode mode) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        int sign = (dividend < 0) == (divisor < 0) ? 1 : -1;
+        long twiceRemainder = Math.abs(remainder) * 2;
+        long absDivisor = Math.abs(divisor);
+
+        boolean awayFromZero;
+        switch (mode) {
+            case UP:
+                awayFromZero = true;
+                break;
+            case DOWN:
+                awayFromZero = false;
+                break;
+            case CEILING:
+                awayFromZero = sign > 0;
+                break;
+            case FLOOR:
+                awayFromZero = sign < 0;
+                break;
+            case HALF_UP:
+                awayFromZero = twiceRemainder >= absDivisor;
+                break;
+            case HALF_DOWN:
+                awayFromZero = twiceRemainder > absDivisor;
+                break;
+            case HALF_EVEN:
+                awayFromZero = twiceRemainder > absDivisor || (twiceRemainder == absDivisor && (quotient & 1) != 0);
+                break;
+            default:
+                throw new ArithmeticException("Rounding necessary: " + dividend + " / " + divisor);
+        }
+        return awayFromZero ? quotient + sign : quotient;
+    }
+
+    /**
+     * Formats an amount for display with thousands separators, e.g. `1,234.50`.
+     */
+    public static String format(long centavos) {
+        return format(centavos, true);
+    }
+
+    /**
+     * Formats an amount for files, e.g. `1234.50`, which {@link #parse} reads back exactly.
+     */
+    public static String toPlainString(long centavos) {
+        return format(centavos, false);
+    }
+
+    private static String format(long centavos, boolean grouping) {
+        StringBuilder sb = new StringBuilder(24);
+        long abs = Math.abs(centavos);
+        String pesos = Long.toString(abs / CENTAVOS_PER_PESO);
+        if (centavos < 0) {
+            sb.append('-');
+        }
+        for (int i = 0; i < pesos.length(); i++) {
+            if (grouping && i > 0 && (pesos.length() - i) % 3 == 0) {
+                sb.append(',');
+            }
+            sb.append(pesos.charAt(i));
+        }
+        long fraction = abs % CENTAVOS_PER_PESO;
+        return sb.append('.').append(fraction < 10 ? "0" : "").append(fraction).toString();
+    }
+}
@@ -0,0 +1,155 @@
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * `PayPeriod` is one semi-monthly cutoff: days 1-15 (first cutoff) or 16-end of month (second cutoff).
+ * Each period has a compact `int` id (`year * 24 + (month - 1) * 2 + cutoff - 1`) that sorts in date order
+ * and can key arrays and maps instead of month strings. All 24 periods of a year, with their windows and
+ * pay dates, are computed together on first use and shared. A pay date falls on the 15th or the last day
+ * of the month, moved back to the nearest earlier workday when that day is a Sunday or a holiday
+ * (see {@link WorkCalendar}).
+ */
+public final class PayPeriod implements Comparable<PayPeriod> {
+    public static final int PERIODS_PER_YEAR = 24;
+    private static final DateTimeFormatter LABEL_MONTH = DateTimeFormatter.ofPattern("MMMM", Locale.ENGLISH);
+
+    private static final ConcurrentHashMap<Integer, PayPeriod[]> YEARS = new ConcurrentHashMap<>();
+
+    private final int id;
+    private final YearMonth yearMonth;
+    private final int cutoff;       // 1 or 2
+    private final LocalDate start;
+    private final LocalDate end;
+    private final LocalDate payDate;
+    private final int startDay;     // Epoch days, for cheap range checks in hot loops
+    private final int endDay;
+
+    private PayPeriod(int id, YearMonth yearMonth, int cutoff, LocalDate start, LocalDate end, LocalDate payDate) {
+        this.id = id;
+        this.yearMonth = yearMonth;
+        this.cutoff = cutoff;
+        this.start = start;
+        this.end = end;
+        this.payDate = payDate;
+        this.startDay = (int) start.toEpochDay();
+        this.endDay = (int) end.toEpochDay();
+    }
+
+    /**
+     * The period with a given id.
+     */
+    public static PayPeriod ofId(int id) {
+        return year(Math.floorDiv(id, PERIODS_PER_YEAR))[Math.floorMod(id, PERIODS_PER_YEAR)];
+    }
+
+    /**
+     * The first (1) or second (2) cutoff of a month.
+     */
+    public static PayPeriod of(YearMonth yearMonth, int cutoff) {
+        if (cutoff != 1 && cutoff != 2) {
+            throw new IllegalArgumentException("Cutoff must be 1 or 2: " + cutoff);
+        }
+        return year(yearMonth.getYear())[(yearMonth.getMonthValue() - 1) * 2 + cutoff - 1];
+    }
+
+    /**
+     * The period a date falls in.
+     */
+    public static PayPeriod containing(LocalDate date) {
+        return of(YearMonth.from(date), date.getDayOfMonth() <= 15 ? 1 : 2);
+    }
+
+    /**
+     * Both periods of a month, in order.
+     */
+    public static PayPeriod[] forMonth(YearMonth yearMonth) {
+        return new PayPeriod[]{of(yearMonth, 1), of(yearMonth, 2)};
+    }
+
+    /**
+     * All 24 periods of a year, in order. The returned array is a copy.
+     */
+    public static PayPeriod[] forYear(int year) {
+        return year(year).clone();
+    }
+
+    private static PayPeriod[] year(int year) {
+        return YEARS.computeIfAbsent(year, PayPeriod::computeYear);
+    }
+
+    private static PayPeriod[] computeYear(int year) {
+        PayPeriod[] periods = new PayPeriod[PERIODS_PER_YEAR];
+        for (int month = 1; month <= 12; month++) {
+            YearMonth ym = YearMonth.of(year, month);
+            int index = (month - 1) * 2;
+            LocalDate midMonth = ym.atDay(15);
+            periods[index] = new PayPeriod(year * PERIODS_PER_YEAR + index, ym, 1,
+                ym.atDay(1), midMonth, adjustToWorkday(midMonth));
+            periods[index + 1] = new PayPeriod(year * PERIODS_PER_YEAR + index + 1, ym, 2,
+                ym.atDay(16), ym.atEndOfMonth(), adjustToWorkday(ym.atEndOfMonth()));
+        }
+        return periods;
+    }
+
+    // Pay falls back to the nearest earlier workday so employees are never paid late
+    private static LocalDate adjustToWorkday(LocalDate date) {
+        LocalDate day = date;
+        for (int i = 0; i < 7 && !WorkCalendar.isWorkday(day); i++) {
+            day = day.minusDays(1);
+        }
+        return day;
+    }
+
+    public int getId() { return id; }
+    public YearMonth getYearMonth() { return yearMonth; }
+    public int getCutoff() { return cutoff; }
+    public LocalDate getStart() { return start; }
+    public LocalDate getEnd() { return end; }
+    public LocalDate getPayDate() { return payDate; }
+
+    public boolean contains(LocalDate date) {
+        return contains(date.toEpochDay());
+    }
+
+    public boolean contains(long epochDay) {
+        return epochDay >= startDay && epochDay <= endDay;
+    }
+
+    public PayPeriod next() {
+        return ofId(id + 1);
+    }
+
+    public PayPeriod previous() {
+        return ofId(id - 1);
+    }
+
+    /**
+     * Display label, e.g. `June 1-15, 2024`.
+     */
+    public String getLabel() {
+        return yearMonth.format(LABEL_MONTH) + " " + start.getDayOfMonth() + "-" + end.getDayOfMonth() + ", " + yearMonth.getYear();
+    }
+
+    @Override
+    public int compareTo(PayPeriod other) {
+        return Integer.compare(id, other.id);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PayPeriod && ((PayPeriod) o).id == id;
+    }
+
+    @Override
+    public int hashCode() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return getLabel();
+    }
+}
@@ -0,0 +1,617 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * `PayrollBatch` runs payroll for a whole period in checkpointed chunks, so a run interrupted by a crash
+ * or a closed window resumes where it stopped instead of starting over.
+ * Employees are processed in employee-number order, {@value #CHUNK_SIZE} at a time in parallel. After
+ * each chunk the results are appended to a binary checkpoint file as fixed-size records and forced to
+ * disk. On restart the file is read back, a torn last record is dropped, and every employee whose record
+ * is present and whose input fingerprint (employee fields, attendance, holiday calendar, table versions) still matches is
+ * skipped. A completed run marks its checkpoint complete.
+ * <p>
+ * Every run also produces a SHA-256 digest of its results, folded in employee-number order as each prefix
+ * of the results becomes final, so the computation stays parallel but the digest is the same however
+ * the work was scheduled or resumed. The digest is saved next to the checkpoint (`.sha256`) together with a
+ * digest of the inputs. A later run with the same inputs must reproduce the same results digest; if it
+ * does not, the run is reported as {@link DigestCheck#MISMATCH} and the recorded digest is kept. Running a
+ * recorded period again therefore recomputes every result in parallel instead of reading the checkpoint
+ * back, so the check tests that the results are reproducible; the checkpoint is left as it is.
+ */
+public class PayrollBatch {
+    static final String RUNS_DIR = "src/data/runs";
+    static final int CHUNK_SIZE = 1024;
+
+    // File layout: 16-byte header, then RECORD_SIZE-byte records
+    private static final int MAGIC = 0x4D50434B; // "MPCK"
+    private static final short FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int COMPLETE_OFFSET = 7;
+    static final int RECORD_SIZE = 3 * 4 + 8 + 11 * 8;
+    // Results digest: each result without its fingerprint
+    private static final int DIGEST_RECORD_SIZE = RECORD_SIZE - 8;
+
+    /**
+     * How a run's results digest compared with the one recorded for the same period.
+     */
+    public enum DigestCheck {
+        /** No digest was recorded yet; this run's digest was saved. */
+        RECORDED,
+        /** Same inputs and the same results digest as the recorded run. */
+        MATCHED,
+        /** The inputs changed since the recorded run; this run's digest replaced it. */
+        INPUTS_CHANGED,
+        /** Same inputs but different results; the recorded digest was kept. */
+        MISMATCH
+    }
+
+    /**
+     * Receives progress after each checkpoint, on the thread running the batch.
+     */
+    public interface ProgressListener {
+        void onProgress(int employeesDone, int employeesTotal);
+    }
+
+    /**
+     * Receives a finished run's results from {@link BatchResult#forEach}, in employee-number order.
+     */
+    public interface ResultSink {
+        void accept(Employee employee, SalaryComputation.PayrollResult result) throws IOException;
+    }
+
+    /**
+     * Runs (or resumes) payroll for a month, checkpointing to `src/data/runs/payroll-yyyy-MM.ckpt`, and posts
+     * the finished run to the year's {@link YtdLedger}.
+     */
+    public static BatchResult run(List<Employee> employees, YearMonth yearMonth, ProgressListener listener)
+            throws IOException, InterruptedException {
+        BatchResult result = run(employees, AttendanceSummary.load(yearMonth), checkpointPath(yearMonth), listener);
+        postToLedger(result);
+        return result;
+    }
+
+    /**
+     * Runs (or resumes) payroll for a semi-monthly cutoff, checkpointing to `src/data/runs/payroll-period-<id>.ckpt`
+     * (see {@link PayPeriod#getId()}), and posts the finished run to the year's {@link YtdLedger}.
+     */
+    public static BatchResult run(List<Employee> employees, PayPeriod period, ProgressListener listener)
+            throws IOException, InterruptedException {
+        BatchResult result = run(employees, AttendanceSummary.load(period), checkpointPath(period), listener);
+        postToLedger(result);
+        return result;
+    }
+
+    // A corrected re-run replaces the period's earlier posting; a run that failed its digest check is held back
+    private static void postToLedger(BatchResult result) throws IOException {
+        if (result.getDigestCheck() == DigestCheck.MISMATCH) {
+            System.err.println("Payroll run for " + result.getPeriodStart() + " not posted to the YTD ledger: "
+                + "it does not reproduce the recorded results");
+            return;
+        }
+        try {
+            YtdLedger.forYear(result.getPeriodStart().getYear()).post(result);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Payroll run for " + result.getPeriodStart() + " not posted to the YTD ledger: "
+                + e.getMessage());
+        }
+    }
+
+    static Path checkpointPath(YearMonth yearMonth) {
+        return Paths.get(RUNS_DIR, "payroll-" + yearMonth + ".ckpt");
+    }
+
+    static Path checkpointPath(PayPeriod period) {
+        return Paths.get(RUNS_DIR, "payroll-period-" + period.getId() + ".ckpt");
+    }
+
+    /**
+     * Runs (or resumes) payroll from pre-loaded attendance.
+     *
+     * @param employees The employees to pay.
+     * @param attendance Attendance totals covering the period; its date range identifies the run.
+     * @param checkpoint The checkpoint file, created if missing.
+     * @param listener Progress callback, or null.
+     * @return Results in employee-number order.
+     * @throws IOException if the checkpoint cannot be written.
+     * @throws InterruptedException if the thread is interrupted; the checkpoint stays valid for a later resume.
+     */
+    public static BatchResult run(List<Employee> employees, AttendanceSummary attendance, Path checkpoint,
+                                  ProgressListener listener) throws IOException, InterruptedException {
+        SssContributionTable sssTable = SssContributionTable.getInstance();
+        StatutoryRates rates = StatutoryRates.getInstance();
+        StatutoryRates.Schedule schedule = rates.scheduleFor(attendance.getStartDate());
+        long tableVersion = SalaryComputation.mix(sssTable.getVersion(), rates.getVersion());
+
+        List<Employee> sorted = new ArrayList<>(employees);
+        sorted.sort(Comparator.comparingInt(Employee::getEmployeeNumber));
+        int n = sorted.size();
+        long[] fingerprints = new long[n];
+        IntStream.range(0, n).parallel().forEach(i ->
+            fingerprints[i] = SalaryComputation.inputFingerprint(sorted.get(i), attendance, tableVersion));
+
+        byte[] header = header(attendance);
+        if (checkpoint.getParent() != null) {
+            Files.createDirectories(checkpoint.getParent());
+        }
+
+        try (FileChannel channel = FileChannel.open(checkpoint, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            Map<Integer, Checkpointed> done = readCheckpoint(channel, header);
+            if (done == null) {
+                // New run, or a checkpoint for a different period or format: start over
+                channel.truncate(0);
+                channel.write(ByteBuffer.wrap(header), 0);
+                channel.force(true);
+                done = new HashMap<>();
+            }
+
+            SalaryComputation.PayrollResult[] results = new SalaryComputation.PayrollResult[n];
+            int[] pending = new int[n];
+            int pendingCount = 0;
+            for (int i = 0; i < n; i++) {
+                Checkpointed previous = done.get(sorted.get(i).getEmployeeNumber());
+                if (previous != null && previous.fingerprint == fingerprints[i]) {
+                    results[i] = previous.result;
+                } else {
+                    pending[pendingCount++] = i;
+                }
+            }
+            int resumed = n - pendingCount;
+
+            if (pendingCount == 0 && Files.exists(digestPath(checkpoint))) {
+                // Results read back from a recorded run always reproduce its digest. Recompute them all instead, so
+                // the digest check below shows whether the run is reproducible; the checkpoint is not rewritten.
+                IntStream.range(0, n).parallel().forEach(i ->
+                    results[i] = SalaryComputation.computeEmployee(sorted.get(i), attendance, sssTable, schedule));
+                resumed = 0;
+            }
+
+            RunDigest digest = new RunDigest(header, results, sorted, fingerprints);
+            if (pendingCount == 0) {
+                digest.foldUpTo(n);
+            } else {
+                // A finished run whose inputs changed is unfinished again until the new records are on disk
+                channel.write(ByteBuffer.wrap(new byte[]{0}), COMPLETE_OFFSET);
+                channel.force(false);
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE * RECORD_SIZE);
+            for (int from = 0; from < pendingCount; from += CHUNK_SIZE) {
+                if (Thread.interrupted()) {
+                    throw new InterruptedException("Payroll run interrupted; resume from " + checkpoint);
+                }
+                int to = Math.min(pendingCount, from + CHUNK_SIZE);
+                IntStream.range(from, to).parallel().forEach(k -> {
+                    int i = pending[k];
+                    results[i] = SalaryComputation.computeEmployee(sorted.get(i), attendance, sssTable, schedule);
+                });
+
+                buffer.clear();
+                for (int k = from; k < to; k++) {
+                    writeRecord(buffer, results[pending[k]], fingerprints[pending[k]]);
+                }
+                buffer.flip();
+                long position = channel.size();
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+                channel.force(false); // The chunk is durable before it counts as done
+                // Everything before the next pending employee is final now
+                digest.foldUpTo(to < pendingCount ? pending[to] : n);
+                if (listener != null) {
+                    listener.onProgress(resumed + to, n);
+                }
+            }
+
+            channel.write(ByteBuffer.wrap(new byte[]{1}), COMPLETE_OFFSET);
+            channel.force(false);
+            String resultsDigest = digest.resultsHex();
+            DigestCheck check = checkDigest(digestPath(checkpoint), n, digest.inputsHex(), resultsDigest);
+            return new BatchResult(attendance, sorted, results, resumed, n - resumed, resultsDigest, check);
+        }
+    }
+
+    static Path digestPath(Path checkpoint) {
+        String name = checkpoint.getFileName().toString();
+        return checkpoint.resolveSibling(name.replaceFirst("\\.ckpt$", "") + ".sha256");
+    }
+
+    /**
+     * Compares a run's digests with the recorded ones and records them unless that would overwrite a mismatch.
+     * The file holds `employees`, `inputs` and `results` lines, readable by anyone auditing the run.
+     */
+    private static DigestCheck checkDigest(Path file, int employees, String inputs, String results) throws IOException {
+        DigestCheck check = DigestCheck.RECORDED;
+        if (Files.exists(file)) {
+            Map<String, String> recorded = new HashMap<>();
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                int space = line.indexOf(' ');
+                if (space > 0) {
+                    recorded.put(line.substring(0, space), line.substring(space + 1).trim());
+                }
+            }
+            if (!inputs.equals(recorded.get("inputs"))) {
+                check = DigestCheck.INPUTS_CHANGED;
+            } else if (results.equals(recorded.get("results"))) {
+                return DigestCheck.MATCHED;
+            } else {
+                System.err.println("Payroll run " + file + " does not reproduce the recorded results: "
+                    + results + " != " + recorded.get("results"));
+                return DigestCheck.MISMATCH;
+            }
+        }
+        String content = "employees " + employees + "\ninputs " + inputs + "\nresults " + results + "\n";
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8)));
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return check;
+    }
+
+    /**
+     * Streaming SHA-256 over the results and over the inputs, both in employee-number order. Both start
+     * with the checkpoint header (period and cutoff) so the same results for another period hash differently.
+     */
+    private static final class RunDigest {
+        private final MessageDigest results;
+        private final MessageDigest inputs;
+        private final SalaryComputation.PayrollResult[] ordered;
+        private final List<Employee> employees;
+        private final long[] fingerprints;
+        private final ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE * DIGEST_RECORD_SIZE);
+        private final ByteBuffer inputBuffer = ByteBuffer.allocate(CHUNK_SIZE * 12);
+        private int folded;
+
+        RunDigest(byte[] header, SalaryComputation.PayrollResult[] ordered, List<Employee> employees, long[] fingerprints) {
+            try {
+                results = MessageDigest.getInstance("SHA-256");
+                inputs = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is required of every Java platform", e);
+            }
+            // The complete flag is not part of the run's identity
+            byte[] identity = header.clone();
+            identity[COMPLETE_OFFSET] = 0;
+            results.update(identity);
+            inputs.update(identity);
+            this.ordered = ordered;
+            this.employees = employees;
+            this.fingerprints = fingerprints;
+        }
+
+        // Folds results [folded, limit) in order; they must all be final
+        void foldUpTo(int limit) {
+            while (folded < limit) {
+                buffer.clear();
+                inputBuffer.clear();
+                int end = Math.min(limit, folded + CHUNK_SIZE);
+                for (int i = folded; i < end; i++) {
+                    SalaryComputation.PayrollResult r = ordered[i];
+                    buffer.putInt(r.getEmployeeNumber());
+                    buffer.putInt(r.getMinutesWorked());
+                    buffer.putInt(r.getOvertimeMinutes());
+                    buffer.putLong(r.getBasicPay());
+                    buffer.putLong(r.getOvertimePay());
+                    buffer.putLong(r.getHolidayPay());
+                    buffer.putLong(r.getGrossPay());
+                    buffer.putLong(r.getBenefits());
+                    buffer.putLong(r.getSss());
+                    buffer.putLong(r.getPhilHealth());
+                    buffer.putLong(r.getPagIbig());
+                    buffer.putLong(r.getWithholdingTax());
+                    buffer.putLong(r.getTotalDeductions());
+                    buffer.putLong(r.getNetPay());
+                    inputBuffer.putInt(employees.get(i).getEmployeeNumber());
+                    inputBuffer.putLong(fingerprints[i]);
+                }
+                results.update(buffer.array(), 0, buffer.position());
+                inputs.update(inputBuffer.array(), 0, inputBuffer.position());
+                folded = end;
+            }
+        }
+
+        String resultsHex() {
+            return HexFormat.of().formatHex(results.digest());
+        }
+
+        String inputsHex() {
+            return HexFormat.of().formatHex(inputs.digest());
+        }
+    }
+
+    /**
+     * Whether a checkpoint file belongs to a run that finished.
+     */
+    public static boolean isComplete(Path checkpoint) throws IOException {
+        if (!Files.exists(checkpoint) || Files.size(checkpoint) < HEADER_SIZE) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(checkpoint, StandardOpenOption.READ)) {
+            ByteBuffer flag = ByteBuffer.allocate(1);
+            channel.read(flag, COMPLETE_OFFSET);
+            return flag.get(0) == 1;
+        }
+    }
+
+    /**
+     * The months and cutoffs whose checkpoint in `src/data/runs` belongs to a run that never finished, e.g.
+     * because the app was closed or crashed mid-run, in period order. Running such a period again resumes it.
+     * Checkpoints for other date ranges are left out.
+     */
+    public static List<Unfinished> findUnfinished() {
+        List<Unfinished> unfinished = new ArrayList<>();
+        Path dir = Paths.get(RUNS_DIR);
+        if (!Files.isDirectory(dir)) {
+            return unfinished;
+        }
+        try (DirectoryStream<Path> checkpoints = Files.newDirectoryStream(dir, "payroll-*.ckpt")) {
+            for (Path checkpoint : checkpoints) {
+                Unfinished run = readUnfinished(checkpoint);
+                if (run != null) {
+                    unfinished.add(run);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error looking for unfinished payroll runs: " + e.getMessage());
+        }
+        unfinished.sort(Comparator.comparing(Unfinished::getYearMonth).thenComparingInt(Unfinished::getCutoff));
+        return unfinished;
+    }
+
+    // The period of an unfinished checkpoint, or null if it finished, is unreadable or is not a month or cutoff
+    private static Unfinished readUnfinished(Path checkpoint) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        try (FileChannel channel = FileChannel.open(checkpoint, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                return null;
+            }
+            channel.read(header, 0);
+        } catch (IOException e) {
+            System.err.println("Error reading payroll checkpoint " + checkpoint + ": " + e.getMessage());
+            return null;
+        }
+        if (header.getInt(0) != MAGIC || header.getShort(4) != FORMAT_VERSION
+                || header.get(COMPLETE_OFFSET) == 1) {
+            return null;
+        }
+        int cutoff = header.get(6);
+        LocalDate start = LocalDate.ofEpochDay(header.getInt(8));
+        LocalDate end = LocalDate.ofEpochDay(header.getInt(12));
+        YearMonth month = YearMonth.from(start);
+        boolean period = cutoff == 0
+            ? start.equals(month.atDay(1)) && end.equals(month.atEndOfMonth())
+            : (cutoff == 1 || cutoff == 2) && PayPeriod.of(month, cutoff).getStart().equals(start)
+                && PayPeriod.of(month, cutoff).getEnd().equals(end);
+        return period ? new Unfinished(month, cutoff) : null;
+    }
+
+    // magic, format version, cutoff (0 = month), complete flag, first and last epoch day of the period
+    private static byte[] header(AttendanceSummary attendance) {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC);
+        header.putShort(FORMAT_VERSION);
+        header.put((byte) (attendance.getPeriod() == null ? 0 : attendance.getPeriod().getCutoff()));
+        header.put((byte) 0);
+        header.putInt((int) attendance.getStartDate().toEpochDay());
+        header.putInt((int) attendance.getEndDate().toEpochDay());
+        return header.array();
+    }
+
+    // Returns the complete records in the file, or null if it is empty or belongs to another run
+    private static Map<Integer, Checkpointed> readCheckpoint(FileChannel channel, byte[] expectedHeader) throws IOException {
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        channel.read(header, 0);
+        byte[] actual = header.array();
+        actual[COMPLETE_OFFSET] = 0; // A finished run for the same period is still the same run
+        if (!Arrays.equals(actual, expectedHeader)) {
+            return null;
+        }
+
+        long records = (size - HEADER_SIZE) / RECORD_SIZE;
+        long validEnd = HEADER_SIZE + records * RECORD_SIZE;
+        if (validEnd < size) {
+            channel.truncate(validEnd); // Drop a record torn by a crash mid-write
+        }
+        return readRecords(channel, records);
+    }
+
+    /**
+     * The results stored in a finished run's checkpoint, in employee-number order, or null if the file is
+     * missing, is not a checkpoint, or belongs to a run that has not finished. The file is only read.
+     */
+    static SalaryComputation.PayrollResult[] readResults(Path checkpoint) throws IOException {
+        if (!isComplete(checkpoint)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(checkpoint, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            if (header.getInt(0) != MAGIC || header.getShort(4) != FORMAT_VERSION) {
+                return null;
+            }
+            Map<Integer, Checkpointed> done = readRecords(channel, (channel.size() - HEADER_SIZE) / RECORD_SIZE);
+            return done.values().stream()
+                .map(record -> record.result)
+                .sorted(Comparator.comparingInt(SalaryComputation.PayrollResult::getEmployeeNumber))
+                .toArray(SalaryComputation.PayrollResult[]::new);
+        }
+    }
+
+    // Reads whole records after the header; when an employee appears twice the later record wins
+    private static Map<Integer, Checkpointed> readRecords(FileChannel channel, long records) throws IOException {
+        long validEnd = HEADER_SIZE + records * RECORD_SIZE;
+        Map<Integer, Checkpointed> done = new HashMap<>((int) Math.min(Integer.MAX_VALUE, records * 2));
+        ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE * RECORD_SIZE);
+        long position = HEADER_SIZE;
+        while (position < validEnd) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), validEnd - position));
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position + buffer.position());
+                if (read < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+            position += buffer.remaining();
+            while (buffer.remaining() >= RECORD_SIZE) {
+                Checkpointed record = readRecord(buffer);
+                done.put(record.result.getEmployeeNumber(), record); // Later records win
+            }
+        }
+        return done;
+    }
+
+    static void writeRecord(ByteBuffer buffer, SalaryComputation.PayrollResult r, long fingerprint) {
+        buffer.putInt(r.getEmployeeNumber());
+        buffer.putInt(r.getMinutesWorked());
+        buffer.putInt(r.getOvertimeMinutes());
+        buffer.putLong(fingerprint);
+        buffer.putLong(r.getBasicPay());
+        buffer.putLong(r.getOvertimePay());
+        buffer.putLong(r.getHolidayPay());
+        buffer.putLong(r.getGrossPay());
+        buffer.putLong(r.getBenefits());
+        buffer.putLong(r.getSss());
+        buffer.putLong(r.getPhilHealth());
+        buffer.putLong(r.getPagIbig());
+        buffer.putLong(r.getWithholdingTax());
+        buffer.putLong(r.getTotalDeductions());
+        buffer.putLong(r.getNetPay());
+    }
+
+    static Checkpointed readRecord(ByteBuffer buffer) {
+        int empNo = buffer.getInt();
+        int minutesWorked = buffer.getInt();
+        int overtimeMinutes = buffer.getInt();
+        long fingerprint = buffer.getLong();
+        SalaryComputation.PayrollResult result = new SalaryComputation.PayrollResult(empNo, minutesWorked, overtimeMinutes,
+            buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong(),
+            buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong(), buffer.getLong());
+        return new Checkpointed(fingerprint, result);
+    }
+
+    static final class Checkpointed {
+        final long fingerprint;
+        final SalaryComputation.PayrollResult result;
+
+        Checkpointed(long fingerprint, SalaryComputation.PayrollResult result) {
+            this.fingerprint = fingerprint;
+            this.result = result;
+        }
+    }
+
+    /**
+     * A month or cutoff whose run was interrupted before it finished.
+     */
+    public static class Unfinished {
+
+        private final YearMonth yearMonth;
+        private final int cutoff;
+
+        Unfinished(YearMonth yearMonth, int cutoff) {
+            this.yearMonth = yearMonth;
+            this.cutoff = cutoff;
+        }
+
+        public YearMonth getYearMonth() { return yearMonth; }
+        /** 1 or 2 for a semi-monthly cutoff, 0 for a whole month. */
+        public int getCutoff() { return cutoff; }
+
+        /** Display label, e.g. `July 2024` or `July 1-15, 2024`. */
+        public String getLabel() {
+            return cutoff == 0
+                ? yearMonth.getMonth().getDisplayName(TextStyle.FULL, Locale.ENGLISH) + " " + yearMonth.getYear()
+                : PayPeriod.of(yearMonth, cutoff).getLabel();
+        }
+    }
+
+    /**
+     * The outcome of a batch run.
+     */
+    public static class BatchResult {
+
+        private final LocalDate periodStart;
+        private final LocalDate periodEnd;
+        private final PayPeriod period;
+        private final List<Employee> employees;
+        private final SalaryComputation.PayrollResult[] results;
+        private final int resumedCount;
+        private final int computedCount;
+        private final String digest;
+        private final DigestCheck digestCheck;
+
+        BatchResult(AttendanceSummary attendance, List<Employee> employees, SalaryComputation.PayrollResult[] results,
+                    int resumedCount, int computedCount, String digest, DigestCheck digestCheck) {
+            this.periodStart = attendance.getStartDate();
+            this.periodEnd = attendance.getEndDate();
+            this.period = attendance.getPeriod();
+            this.employees = Collections.unmodifiableList(employees);
+            this.results = results;
+            this.resumedCount = resumedCount;
+            this.computedCount = computedCount;
+            this.digest = digest;
+            this.digestCheck = digestCheck;
+        }
+
+        public LocalDate getPeriodStart() { return periodStart; }
+        public LocalDate getPeriodEnd() { return periodEnd; }
+        /** The semi-monthly cutoff, or null for a whole month or another range. */
+        public PayPeriod getPeriod() { return period; }
+        /** 1 or 2 for a semi-monthly cutoff, 0 for a whole month or another range. */
+        public int getCutoff() { return period == null ? 0 : period.getCutoff(); }
+        /** The employees paid, in employee-number order, as they were when the run was computed. */
+        public List<Employee> getEmployees() { return employees; }
+        /** Results in employee-number order, parallel to {@link #getEmployees()}. */
+        public SalaryComputation.PayrollResult[] getResults() { return results.clone(); }
+        /** Employees whose result was read back from the checkpoint. */
+        public int getResumedCount() { return resumedCount; }
+        /** Employees computed by this call. */
+        public int getComputedCount() { return computedCount; }
+        /** SHA-256 of the period and every result in employee-number order, as hex. */
+        public String getDigest() { return digest; }
+        /** How the digest compared with the one recorded for this period. */
+        public DigestCheck getDigestCheck() { return digestCheck; }
+
+        /**
+         * Hands every employee and their result to `sink`, in employee-number order, on the calling thread.
+         *
+         * @throws IOException if the sink fails; no further results are handed over.
+         */
+        public void forEach(ResultSink sink) throws IOException {
+            for (int i = 0; i < results.length; i++) {
+                sink.accept(employees.get(i), results[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * `PayrollCache` memoizes single-employee payroll results, so reopening a payslip for the same
+ * employee and month returns the previous result instead of re-reading attendance.
+ * Entries are keyed by employee number and month and carry a hash of everything the result
+ * depends on: the employee's pay fields, the version of that employee's attendance for the month,
+ * the holiday calendar version, and the versions of the SSS and statutory rate tables. A lookup whose hash no longer matches is
+ * recomputed. Attendance versions are bumped by the writers and the {@link AttendanceTailer}, and
+ * the cache is bounded, evicting the least recently used entry.
+ */
+public class PayrollCache {
+    private static final int MAX_ENTRIES = 4096;
+
+    private static PayrollCache shared;
+
+    // (employee number, month) -> result, in access order for LRU eviction
+    private final Map<Long, Entry> entries = new LinkedHashMap<Long, Entry>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    // (employee number, month) -> attendance version; a file reset bumps the epoch instead, which covers everyone
+    private final ConcurrentHashMap<Long, Long> attendanceVersions = new ConcurrentHashMap<>();
+    private volatile long attendanceEpoch;
+
+    private long hits;
+    private long misses;
+
+    private static final class Entry {
+        final long inputHash;
+        final SalaryComputation.PayrollResult result;
+
+        Entry(long inputHash, SalaryComputation.PayrollResult result) {
+            this.inputHash = inputHash;
+            this.result = result;
+        }
+    }
+
+    /**
+     * Returns the process-wide cache, creating it on first use. Creating it also starts the shared
+     * {@link AttendanceTailer}, since rows the clock system appends reach the cache only through the tailer.
+     */
+    public static synchronized PayrollCache shared() {
+        if (shared == null) {
+            shared = new PayrollCache();
+            AttendanceTailer.shared();
+        }
+        return shared;
+    }
+
+    /**
+     * Returns the process-wide cache if something already created it, or null.
+     * Writers use this so they only pay for invalidation when results are actually cached.
+     */
+    public static synchronized PayrollCache sharedIfLoaded() {
+        return shared;
+    }
+
+    /**
+     * Returns an employee's payroll for a month, computing it only if the inputs changed since it was cached.
+     */
+    public SalaryComputation.PayrollResult get(Employee employee, YearMonth period) {
+        long key = key(employee.getEmployeeNumber(), period);
+        // Hashed before computing, so a change that lands during the computation makes the next lookup miss
+        long inputHash = inputHash(employee, period);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.inputHash == inputHash) {
+                hits++;
+                return entry.result;
+            }
+            misses++;
+        }
+
+        SalaryComputation.PayrollResult result = SalaryComputation.computeEmployee(employee, period);
+        synchronized (this) {
+            entries.put(key, new Entry(inputHash, result));
+        }
+        return result;
+    }
+
+    /**
+     * Drops every cached month for an employee, e.g. after the employee is edited or deleted.
+     */
+    public synchronized void invalidateEmployee(int empNo) {
+        entries.keySet().removeIf(key -> (int) (key >>> 32) == empNo);
+    }
+
+    /**
+     * Records that an employee's attendance on a date changed, which invalidates that month only.
+     */
+    public void attendanceChanged(int empNo, LocalDate date) {
+        attendanceVersions.merge(key(empNo, YearMonth.from(date)), 1L, Long::sum);
+    }
+
+    /**
+     * Records that the attendance file was replaced or bulk-edited, which invalidates every entry.
+     */
+    public void attendanceReset() {
+        attendanceVersions.clear();
+        attendanceEpoch++;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    private long inputHash(Employee employee, YearMonth period) {
+        long h = SalaryComputation.mix(SalaryComputation.employeeFingerprint(employee), attendanceEpoch);
+        h = SalaryComputation.mix(h, attendanceVersions.getOrDefault(key(employee.getEmployeeNumber(), period), 0L));
+        h = SalaryComputation.mix(h, SssContributionTable.getInstance().getVersion());
+        h = SalaryComputation.mix(h, WorkCalendar.getVersion());
+        return SalaryComputation.mix(h, StatutoryRates.getInstance().getVersion());
+    }
+
+    // A month is keyed by the id of its first cutoff; the cache only holds whole months, so ids never collide
+    private static long key(int empNo, YearMonth period) {
+        return (long) empNo << 32 | PayPeriod.of(period, 1).getId();
+    }
+}
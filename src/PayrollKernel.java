@@ -0,0 +1,172 @@
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * `PayrollKernel` computes payroll for the whole workforce at once over {@link Columns}: one primitive
+ * array per input and per output instead of one object per employee. The arithmetic is exactly that of
+ * {@link SalaryComputation#computeEmployee(Employee, AttendanceSummary, SssContributionTable, StatutoryRates.Schedule)},
+ * so both give identical centavos.
+ * When the `jdk.incubator.vector` module is available (the project adds it with `--add-modules`), inputs
+ * within {@link VectorPayrollKernel}'s exact range are computed several employees per instruction; otherwise,
+ * or if the module is missing at run time, the scalar loop here is used.
+ */
+public class PayrollKernel {
+    private static final RoundingMode ROUNDING = RoundingMode.HALF_UP;
+    private static final boolean VECTOR_AVAILABLE = probeVector();
+
+    /**
+     * Inputs and outputs for every employee, one array per column. Amounts are centavos.
+     */
+    public static class Columns {
+
+        final int size;
+        // Inputs
+        final int[] employeeNumbers;
+        final long[] hourlyRates;
+        final long[] monthlySalaries;
+        final long[] allowances;
+        final long[] workedMinutes;          // Minutes are long so every column loads straight into long lanes
+        final long[] overtimeMinutes;
+        final long[] regularHolidayMinutes;
+        final long[] specialHolidayMinutes;
+        // Outputs
+        final long[] basicPay;
+        final long[] overtimePay;
+        final long[] holidayPay;
+        final long[] grossPay;
+        final long[] benefits;
+        final long[] sss;
+        final long[] philHealth;
+        final long[] pagIbig;
+        final long[] withholdingTax;
+        final long[] totalDeductions;
+        final long[] netPay;
+
+        public Columns(int size) {
+            this.size = size;
+            employeeNumbers = new int[size];
+            hourlyRates = new long[size];
+            monthlySalaries = new long[size];
+            allowances = new long[size];
+            workedMinutes = new long[size];
+            overtimeMinutes = new long[size];
+            regularHolidayMinutes = new long[size];
+            specialHolidayMinutes = new long[size];
+            basicPay = new long[size];
+            overtimePay = new long[size];
+            holidayPay = new long[size];
+            grossPay = new long[size];
+            benefits = new long[size];
+            sss = new long[size];
+            philHealth = new long[size];
+            pagIbig = new long[size];
+            withholdingTax = new long[size];
+            totalDeductions = new long[size];
+            netPay = new long[size];
+        }
+
+        /**
+         * Gathers the inputs for a list of employees, in list order.
+         */
+        public static Columns of(List<Employee> employees, AttendanceSummary attendance) {
+            Columns columns = new Columns(employees.size());
+            for (int i = 0; i < columns.size; i++) {
+                Employee employee = employees.get(i);
+                int empNo = employee.getEmployeeNumber();
+                columns.employeeNumbers[i] = empNo;
+                columns.hourlyRates[i] = employee.getHourlyRateCentavos();
+                columns.monthlySalaries[i] = employee.getBasicSalaryCentavos();
+                columns.allowances[i] = employee.getTotalAllowancesCentavos();
+                columns.workedMinutes[i] = attendance.getWorkedMinutes(empNo);
+                columns.overtimeMinutes[i] = attendance.getOvertimeMinutes(empNo);
+                columns.regularHolidayMinutes[i] = attendance.getRegularHolidayMinutes(empNo);
+                columns.specialHolidayMinutes[i] = attendance.getSpecialHolidayMinutes(empNo);
+            }
+            return columns;
+        }
+
+        public int size() { return size; }
+
+        /**
+         * The computed result at an index, as the engine would return it.
+         */
+        public SalaryComputation.PayrollResult getResult(int i) {
+            return new SalaryComputation.PayrollResult(employeeNumbers[i], (int) workedMinutes[i], (int) overtimeMinutes[i],
+                basicPay[i], overtimePay[i], holidayPay[i], grossPay[i], benefits[i], sss[i], philHealth[i],
+                pagIbig[i], withholdingTax[i], totalDeductions[i], netPay[i]);
+        }
+    }
+
+    /**
+     * Whether the vector kernel can run in this JVM.
+     */
+    public static boolean isVectorAvailable() {
+        return VECTOR_AVAILABLE;
+    }
+
+    /**
+     * Computes every employee's pay and deductions into the output columns.
+     *
+     * @param columns Inputs, overwritten outputs.
+     * @param sssTable The SSS brackets.
+     * @param rates The PhilHealth, Pag-IBIG and tax tables for the period.
+     * @param cutoff 1 or 2 for a semi-monthly cutoff, 0 for a whole month.
+     * @return Whether the vector kernel was used.
+     */
+    public static boolean compute(Columns columns, SssContributionTable sssTable, StatutoryRates.Schedule rates, int cutoff) {
+        if (VECTOR_AVAILABLE && VectorPayrollKernel.inExactRange(columns, rates)) {
+            int done = VectorPayrollKernel.compute(columns, sssTable, rates, cutoff);
+            computeScalar(columns, sssTable, rates, cutoff, done, columns.size);
+            return true;
+        }
+        computeScalar(columns, sssTable, rates, cutoff, 0, columns.size);
+        return false;
+    }
+
+    /**
+     * The scalar kernel over `[from, to)`; also finishes the lanes left over by the vector kernel.
+     */
+    static void computeScalar(Columns c, SssContributionTable sssTable, StatutoryRates.Schedule rates, int cutoff,
+                              int from, int to) {
+        for (int i = from; i < to; i++) {
+            long rate = c.hourlyRates[i];
+            long regularMinutes = Math.max(0, c.workedMinutes[i] - c.overtimeMinutes[i]);
+            long basicPay = Money.multiply(rate, regularMinutes, 60, ROUNDING);
+            long overtimePay = Money.multiply(rate, c.overtimeMinutes[i] * SalaryComputation.OVERTIME_PERCENT, 60 * 100, ROUNDING);
+            long holidayPay = Money.multiply(rate, c.regularHolidayMinutes[i] * SalaryComputation.REGULAR_HOLIDAY_PREMIUM_PERCENT, 60 * 100, ROUNDING)
+                + Money.multiply(rate, c.specialHolidayMinutes[i] * SalaryComputation.SPECIAL_HOLIDAY_PREMIUM_PERCENT, 60 * 100, ROUNDING);
+            long grossPay = basicPay + overtimePay + holidayPay;
+
+            long monthlySalary = c.monthlySalaries[i];
+            long sss = SalaryComputation.cutoffShare(sssTable.lookup(monthlySalary), cutoff);
+            long philHealth = SalaryComputation.cutoffShare(rates.philHealth.amount(monthlySalary), cutoff);
+            long pagIbig = SalaryComputation.cutoffShare(rates.pagIbig.amount(monthlySalary), cutoff);
+            long taxable = grossPay - sss - philHealth - pagIbig;
+            long withholdingTax = cutoff == 0 ? rates.withholdingTax.amount(taxable)
+                : SalaryComputation.cutoffShare(rates.withholdingTax.amount(taxable * 2), cutoff);
+            long totalDeductions = sss + philHealth + pagIbig + withholdingTax;
+            long benefits = SalaryComputation.cutoffShare(c.allowances[i], cutoff);
+
+            c.basicPay[i] = basicPay;
+            c.overtimePay[i] = overtimePay;
+            c.holidayPay[i] = holidayPay;
+            c.grossPay[i] = grossPay;
+            c.benefits[i] = benefits;
+            c.sss[i] = sss;
+            c.philHealth[i] = philHealth;
+            c.pagIbig[i] = pagIbig;
+            c.withholdingTax[i] = withholdingTax;
+            c.totalDeductions[i] = totalDeductions;
+            c.netPay[i] = grossPay + benefits - totalDeductions;
+        }
+    }
+
+    // Loading the vector kernel fails with a LinkageError when the incubator module was not added
+    private static boolean probeVector() {
+        try {
+            return VectorPayrollKernel.lanes() > 1;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the scalar and vector payroll kernels on the same inputs and checks they agree to the centavo.
+ * Inputs are the real employees' rates repeated to the requested workforce size, with random attendance;
+ * deduction tables are those in force for the given month. Each kernel is warmed up before it is timed.
+ *
+ * Run with `--add-modules jdk.incubator.vector`, optionally passing the workforce size and `yyyy-MM`:
+ * `java --add-modules jdk.incubator.vector PayrollKernelBenchmark 1000000 2024-06`
+ */
+public class PayrollKernelBenchmark {
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 20;
+
+    /**
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        YearMonth month = args.length > 1 ? YearMonth.parse(args[1]) : YearMonth.now();
+
+        List<Employee> employees = EmployeeFileHandler.loadEmployees();
+        if (employees.isEmpty()) {
+            System.err.println("No employees to benchmark with");
+            return;
+        }
+        SssContributionTable sssTable = SssContributionTable.getInstance();
+        StatutoryRates.Schedule rates = StatutoryRates.getInstance().scheduleFor(month.atDay(1));
+
+        PayrollKernel.Columns scalar = columns(employees, size);
+        PayrollKernel.Columns vector = columns(employees, size);
+        System.out.println("Employees: " + size + ", vector lanes: "
+            + (PayrollKernel.isVectorAvailable() ? VectorPayrollKernel.lanes() : "unavailable"));
+
+        long scalarNanos = time(() -> PayrollKernel.computeScalar(scalar, sssTable, rates, 0, 0, size));
+        System.out.printf("Scalar: %.2f ms per run%n", scalarNanos / 1e6);
+        if (!PayrollKernel.isVectorAvailable()) {
+            System.out.println("Run with --add-modules jdk.incubator.vector to compare the vector kernel");
+            return;
+        }
+        long vectorNanos = time(() -> PayrollKernel.compute(vector, sssTable, rates, 0));
+        System.out.printf("Vector: %.2f ms per run (%.2fx)%n", vectorNanos / 1e6, (double) scalarNanos / vectorNanos);
+        int mismatches = 0;
+        for (int i = 0; i < size; i++) {
+            if (!scalar.getResult(i).equals(vector.getResult(i))) {
+                mismatches++;
+            }
+        }
+        System.out.println(mismatches == 0 ? "Results identical" : "Results differ for " + mismatches + " employees");
+    }
+
+    private static PayrollKernel.Columns columns(List<Employee> employees, int size) {
+        PayrollKernel.Columns columns = new PayrollKernel.Columns(size);
+        Random random = new Random(42); // Same attendance for both kernels
+        for (int i = 0; i < size; i++) {
+            Employee employee = employees.get(i % employees.size());
+            columns.employeeNumbers[i] = i + 1;
+            columns.hourlyRates[i] = employee.getHourlyRateCentavos();
+            columns.monthlySalaries[i] = employee.getBasicSalaryCentavos();
+            columns.allowances[i] = employee.getTotalAllowancesCentavos();
+            columns.workedMinutes[i] = 8_000 + random.nextInt(3_000);
+            columns.overtimeMinutes[i] = random.nextInt(600);
+            columns.regularHolidayMinutes[i] = random.nextInt(4) == 0 ? 480 : 0;
+            columns.specialHolidayMinutes[i] = random.nextInt(8) == 0 ? 480 : 0;
+        }
+        return columns;
+    }
+
+    // Average nanoseconds per run after warming up
+    private static long time(Runnable run) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            run.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            run.run();
+        }
+        return (System.nanoTime() - start) / MEASURED_ROUNDS;
+    }
+}
@@ -0,0 +1,165 @@
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * `PayrollRegisterWriter` streams the payroll register: one CSV row per employee per period with every
+ * earnings and deduction line. Rows are formatted by hand into one reused `StringBuilder` (amounts
+ * straight from centavos, no `String.format`) and written through a 1 MB buffer, optionally gzip-compressed,
+ * so memory stays constant however many rows a finalized {@link PayrollBatch} run hands it.
+ */
+public class PayrollRegisterWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 20;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+    private static final String[] HEADER = {
+        "Period Start", "Period End", "Employee #", "Last Name", "First Name", "Position", "Status",
+        "Hours Worked", "Overtime Hours", "Basic Pay", "Overtime Pay", "Holiday Pay", "Gross Pay", "Allowances",
+        "SSS", "PhilHealth", "Pag-IBIG", "Withholding Tax", "Total Deductions", "Net Pay"
+    };
+
+    private final Writer writer;
+    private final StringBuilder row = new StringBuilder(256);
+    private final String periodStart;
+    private final String periodEnd;
+    private long rowsWritten;
+
+    /**
+     * Opens a register file and writes its header row.
+     *
+     * @param file The file to create or overwrite.
+     * @param startDate The first day of the pay period.
+     * @param endDate The last day of the pay period.
+     * @param gzip Whether to gzip the output (name the file `.csv.gz`).
+     * @throws IOException if the file cannot be created.
+     */
+    public PayrollRegisterWriter(Path file, LocalDate startDate, LocalDate endDate, boolean gzip) throws IOException {
+        OutputStream out = Files.newOutputStream(file);
+        try {
+            if (gzip) {
+                out = new GZIPOutputStream(out, 1 << 16); // Writes the gzip header, so it can fail
+            }
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            writer.write(String.join(",", HEADER));
+            writer.write('\n');
+        } catch (IOException | RuntimeException e) {
+            out.close(); // Nobody else holds the stream yet
+            throw e;
+        }
+        this.periodStart = startDate.format(DATE_FORMAT);
+        this.periodEnd = endDate.format(DATE_FORMAT);
+    }
+
+    /**
+     * Streams a finalized run's register to a file, one row per employee in employee-number order. The register
+     * is written under a temporary name and moved into place once complete, so a failed export never leaves a
+     * partial register (or replaces an earlier one).
+     *
+     * @return The number of employee rows written.
+     * @throws IOException if the file cannot be written.
+     */
+    public static long export(PayrollBatch.BatchResult run, Path file, boolean gzip) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        long rows;
+        try {
+            try (PayrollRegisterWriter register = new PayrollRegisterWriter(temp, run.getPeriodStart(), run.getPeriodEnd(), gzip)) {
+                run.forEach(register::write);
+                rows = register.getRowsWritten();
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return rows;
+    }
+
+    /**
+     * Appends one employee's row.
+     */
+    public void write(Employee employee, SalaryComputation.PayrollResult result) throws IOException {
+        StringBuilder sb = row;
+        sb.setLength(0);
+        sb.append(periodStart).append(',').append(periodEnd).append(',').append(result.getEmployeeNumber());
+        appendText(sb, employee.getLastName());
+        appendText(sb, employee.getFirstName());
+        appendText(sb, employee.getPosition());
+        appendText(sb, employee.getStatus());
+        // Hours to two decimals, as centi-hours rounded half-up
+        appendAmount(sb, (result.getMinutesWorked() * 100L + 30) / 60);
+        appendAmount(sb, (result.getOvertimeMinutes() * 100L + 30) / 60);
+        appendAmount(sb, result.getBasicPay());
+        appendAmount(sb, result.getOvertimePay());
+        appendAmount(sb, result.getHolidayPay());
+        appendAmount(sb, result.getGrossPay());
+        appendAmount(sb, result.getBenefits());
+        appendAmount(sb, result.getSss());
+        appendAmount(sb, result.getPhilHealth());
+        appendAmount(sb, result.getPagIbig());
+        appendAmount(sb, result.getWithholdingTax());
+        appendAmount(sb, result.getTotalDeductions());
+        appendAmount(sb, result.getNetPay());
+        sb.append('\n');
+        writer.append(sb);
+        rowsWritten++;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close(); // Also finishes the gzip stream
+    }
+
+    // Appends ",value", quoting it only if it contains a comma, quote or line break, like the other CSV writers
+    private static void appendText(StringBuilder sb, String value) {
+        sb.append(',');
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            sb.append(value);
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                sb.append('"');
+            }
+            sb.append(c);
+        }
+        sb.append('"');
+    }
+
+    // Appends ",1234.56" from centavos without creating intermediate strings
+    private static void appendAmount(StringBuilder sb, long centavos) {
+        sb.append(',');
+        if (centavos < 0) {
+            sb.append('-');
+            centavos = -centavos;
+        }
+        long fraction = centavos % 100;
+        sb.append(centavos / 100).append('.');
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        sb.append(fraction);
+    }
+}
@@ -0,0 +1,171 @@
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * `PayrollRun` is the result of a batch payroll for one month, kept so the month can be re-run incrementally.
+ * Alongside each employee's result it stores a dependency fingerprint: a hash of the employee fields the
+ * computation reads, the employee's attendance punches in the period, the holiday calendar, and the SSS and statutory table versions.
+ * {@link #recompute(List)} re-reads attendance once, recomputes only the employees whose fingerprint changed,
+ * reuses every other result as is, and reports the differences against this run.
+ */
+public class PayrollRun {
+    private final YearMonth period;
+    private final int[] employeeNumbers;   // Sorted, for binary search
+    private final long[] fingerprints;     // Parallel to employeeNumbers
+    private final SalaryComputation.PayrollResult[] results;
+    private final int recomputedCount;
+    private final List<Change> changes;
+
+    private PayrollRun(YearMonth period, int[] employeeNumbers, long[] fingerprints,
+                       SalaryComputation.PayrollResult[] results, int recomputedCount, List<Change> changes) {
+        this.period = period;
+        this.employeeNumbers = employeeNumbers;
+        this.fingerprints = fingerprints;
+        this.results = results;
+        this.recomputedCount = recomputedCount;
+        this.changes = changes;
+    }
+
+    /**
+     * Runs payroll for every employee for a month. Every employee counts as changed.
+     */
+    public static PayrollRun compute(List<Employee> employees, YearMonth period) {
+        return run(null, employees, period);
+    }
+
+    /**
+     * Re-runs the same month against the current employees, attendance and tables.
+     *
+     * @param employees The employees to pay now; employees missing from this run are reported as removed.
+     * @return The new run; its {@link #getChanges()} lists every employee whose result differs from this run.
+     */
+    public PayrollRun recompute(List<Employee> employees) {
+        return run(this, employees, period);
+    }
+
+    private static PayrollRun run(PayrollRun previous, List<Employee> employees, YearMonth period) {
+        AttendanceSummary attendance = AttendanceSummary.load(period);
+        SssContributionTable sssTable = SssContributionTable.getInstance();
+        StatutoryRates rates = StatutoryRates.getInstance();
+        StatutoryRates.Schedule schedule = rates.scheduleFor(period.atDay(1));
+        long tableVersion = SalaryComputation.mix(sssTable.getVersion(), rates.getVersion());
+
+        List<Employee> sorted = new ArrayList<>(employees);
+        sorted.sort(Comparator.comparingInt(Employee::getEmployeeNumber));
+        int n = sorted.size();
+        int[] employeeNumbers = new int[n];
+        long[] fingerprints = new long[n];
+        SalaryComputation.PayrollResult[] results = new SalaryComputation.PayrollResult[n];
+        boolean[] recomputed = new boolean[n];
+
+        // Each employee writes only its own slots, so the parallel run is deterministic
+        IntStream.range(0, n).parallel().forEach(i -> {
+            Employee employee = sorted.get(i);
+            int empNo = employee.getEmployeeNumber();
+            long fingerprint = SalaryComputation.inputFingerprint(employee, attendance, tableVersion);
+            employeeNumbers[i] = empNo;
+            fingerprints[i] = fingerprint;
+
+            int j = previous == null ? -1 : previous.indexOf(empNo);
+            if (j >= 0 && previous.fingerprints[j] == fingerprint) {
+                results[i] = previous.results[j];
+            } else {
+                results[i] = SalaryComputation.computeEmployee(employee, attendance, sssTable, schedule);
+                recomputed[i] = true;
+            }
+        });
+
+        int recomputedCount = 0;
+        for (boolean r : recomputed) {
+            recomputedCount += r ? 1 : 0;
+        }
+        List<Change> changes = diff(previous, employeeNumbers, results, recomputed);
+        return new PayrollRun(period, employeeNumbers, fingerprints, results, recomputedCount, changes);
+    }
+
+    // Merges the two sorted employee lists; only recomputed employees can differ from the previous run
+    private static List<Change> diff(PayrollRun previous, int[] employeeNumbers,
+                                     SalaryComputation.PayrollResult[] results, boolean[] recomputed) {
+        List<Change> changes = new ArrayList<>();
+        int[] before = previous == null ? new int[0] : previous.employeeNumbers;
+        int i = 0;
+        int j = 0;
+        while (i < employeeNumbers.length || j < before.length) {
+            if (j == before.length || (i < employeeNumbers.length && employeeNumbers[i] < before[j])) {
+                changes.add(new Change(employeeNumbers[i], null, results[i])); // Added
+                i++;
+            } else if (i == employeeNumbers.length || before[j] < employeeNumbers[i]) {
+                changes.add(new Change(before[j], previous.results[j], null)); // Removed
+                j++;
+            } else {
+                if (recomputed[i] && !results[i].equals(previous.results[j])) {
+                    changes.add(new Change(employeeNumbers[i], previous.results[j], results[i]));
+                }
+                i++;
+                j++;
+            }
+        }
+        return Collections.unmodifiableList(changes);
+    }
+
+    private int indexOf(int empNo) {
+        int index = Arrays.binarySearch(employeeNumbers, empNo);
+        return index < 0 ? -1 : index;
+    }
+
+    public YearMonth getPeriod() {
+        return period;
+    }
+
+    /** Results ordered by employee number. */
+    public SalaryComputation.PayrollResult[] getResults() {
+        return results.clone();
+    }
+
+    /** The result for one employee, or null if they were not in this run. */
+    public SalaryComputation.PayrollResult getResult(int empNo) {
+        int index = indexOf(empNo);
+        return index < 0 ? null : results[index];
+    }
+
+    /** Number of employees whose result was computed rather than reused. */
+    public int getRecomputedCount() {
+        return recomputedCount;
+    }
+
+    /** Employees added, removed or with a different result compared to the run this one was recomputed from. */
+    public List<Change> getChanges() {
+        return changes;
+    }
+
+    /**
+     * One employee's result before and after a re-run. `before` is null for added employees and
+     * `after` is null for removed ones.
+     */
+    public static class Change {
+
+        private final int employeeNumber;
+        private final SalaryComputation.PayrollResult before;
+        private final SalaryComputation.PayrollResult after;
+
+        Change(int employeeNumber, SalaryComputation.PayrollResult before, SalaryComputation.PayrollResult after) {
+            this.employeeNumber = employeeNumber;
+            this.before = before;
+            this.after = after;
+        }
+
+        public int getEmployeeNumber() { return employeeNumber; }
+        public SalaryComputation.PayrollResult getBefore() { return before; }
+        public SalaryComputation.PayrollResult getAfter() { return after; }
+
+        /** Change in net pay, in centavos. */
+        public long getNetPayDelta() {
+            return (after == null ? 0 : after.getNetPay()) - (before == null ? 0 : before.getNetPay());
+        }
+    }
+}
@@ -0,0 +1,180 @@
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * `PayrollSimulation` answers what-if questions such as "what does a 5% raise for all Regular employees cost?".
+ * A {@link Scenario} is applied to in-memory copies of the matching employees only; the files are never written.
+ * Attendance is read once, then the affected employees are gathered into {@link PayrollKernel.Columns} twice
+ * (as is and under the scenario) and computed a whole column at a time, with the vector kernel when the JVM
+ * has it. The kernel gives the same centavos as {@link SalaryComputation#computeEmployee}, and totals are
+ * integer centavo sums, so the answer does not depend on which kernel ran.
+ */
+public class PayrollSimulation {
+
+    /**
+     * Hypothetical changes to apply. Amounts are in centavos; the raise is in basis points (500 = 5%).
+     */
+    public static class Scenario {
+
+        private String statusFilter;         // Only employees with this status, or null for everyone
+        private long raiseBasisPoints;       // Applied to basic salary, semi-monthly rate and hourly rate
+        private long riceSubsidyDelta;
+        private long phoneAllowanceDelta;
+        private long clothingAllowanceDelta;
+        private LocalDate ratesAsOf;         // Statutory tables in force on this date, or null for the period's own
+
+        public String getStatusFilter() { return statusFilter; }
+        public long getRaiseBasisPoints() { return raiseBasisPoints; }
+        public long getRiceSubsidyDelta() { return riceSubsidyDelta; }
+        public long getPhoneAllowanceDelta() { return phoneAllowanceDelta; }
+        public long getClothingAllowanceDelta() { return clothingAllowanceDelta; }
+        public LocalDate getRatesAsOf() { return ratesAsOf; }
+
+        public void setStatusFilter(String statusFilter) { this.statusFilter = statusFilter; }
+        public void setRaiseBasisPoints(long raiseBasisPoints) { this.raiseBasisPoints = raiseBasisPoints; }
+        public void setRiceSubsidyDelta(long riceSubsidyDelta) { this.riceSubsidyDelta = riceSubsidyDelta; }
+        public void setPhoneAllowanceDelta(long phoneAllowanceDelta) { this.phoneAllowanceDelta = phoneAllowanceDelta; }
+        public void setClothingAllowanceDelta(long clothingAllowanceDelta) { this.clothingAllowanceDelta = clothingAllowanceDelta; }
+        public void setRatesAsOf(LocalDate ratesAsOf) { this.ratesAsOf = ratesAsOf; }
+
+        public boolean appliesTo(Employee employee) {
+            return statusFilter == null || statusFilter.equalsIgnoreCase(employee.getStatus());
+        }
+    }
+
+    /**
+     * Payroll totals over a set of employees, in centavos.
+     */
+    public static class Totals {
+
+        private int employees;
+        private long grossPay;
+        private long benefits;
+        private long sss;
+        private long philHealth;
+        private long pagIbig;
+        private long withholdingTax;
+        private long totalDeductions;
+        private long netPay;
+
+        void addAll(PayrollKernel.Columns columns) {
+            for (int i = 0; i < columns.size; i++) {
+                employees++;
+                grossPay += columns.grossPay[i];
+                benefits += columns.benefits[i];
+                sss += columns.sss[i];
+                philHealth += columns.philHealth[i];
+                pagIbig += columns.pagIbig[i];
+                withholdingTax += columns.withholdingTax[i];
+                totalDeductions += columns.totalDeductions[i];
+                netPay += columns.netPay[i];
+            }
+        }
+
+        public int getEmployees() { return employees; }
+        public long getGrossPay() { return grossPay; }
+        public long getBenefits() { return benefits; }
+        public long getSss() { return sss; }
+        public long getPhilHealth() { return philHealth; }
+        public long getPagIbig() { return pagIbig; }
+        public long getWithholdingTax() { return withholdingTax; }
+        public long getTotalDeductions() { return totalDeductions; }
+        public long getNetPay() { return netPay; }
+
+        /** What the company pays out: gross pay plus allowances. */
+        public long getPayrollCost() { return grossPay + benefits; }
+    }
+
+    /**
+     * Current and simulated totals for the employees the scenario touches, and the differences between them.
+     * Everyone else's pay is unchanged, so the deltas are also the change for the whole workforce.
+     */
+    public static class Result {
+
+        private final Totals baseline;
+        private final Totals simulated;
+        private final long elapsedNanos;
+
+        Result(Totals baseline, Totals simulated, long elapsedNanos) {
+            this.baseline = baseline;
+            this.simulated = simulated;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /** Totals for the affected employees as things are today. */
+        public Totals getBaseline() { return baseline; }
+        /** Totals for the same employees under the scenario. */
+        public Totals getSimulated() { return simulated; }
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        public int getAffectedEmployees() { return simulated.getEmployees(); }
+        public long getPayrollCostDelta() { return simulated.getPayrollCost() - baseline.getPayrollCost(); }
+        public long getGrossPayDelta() { return simulated.getGrossPay() - baseline.getGrossPay(); }
+        public long getTotalDeductionsDelta() { return simulated.getTotalDeductions() - baseline.getTotalDeductions(); }
+        public long getNetPayDelta() { return simulated.getNetPay() - baseline.getNetPay(); }
+    }
+
+    /**
+     * Simulates a scenario for a month, reading attendance from the default attendance CSV.
+     */
+    public static Result simulate(List<Employee> employees, YearMonth period, Scenario scenario) {
+        return simulate(employees, AttendanceSummary.load(period), scenario);
+    }
+
+    /**
+     * Simulates a scenario against pre-loaded attendance. `employees` is only read.
+     *
+     * @param employees The workforce.
+     * @param attendance Attendance totals covering the pay period.
+     * @param scenario The changes to apply.
+     * @return Aggregate totals for the affected employees before and after.
+     */
+    public static Result simulate(List<Employee> employees, AttendanceSummary attendance, Scenario scenario) {
+        long start = System.nanoTime();
+        SssContributionTable sssTable = SssContributionTable.getInstance();
+        StatutoryRates rates = StatutoryRates.getInstance();
+        StatutoryRates.Schedule current = rates.scheduleFor(attendance.getStartDate());
+        StatutoryRates.Schedule simulatedRates = scenario.getRatesAsOf() == null ? current : rates.scheduleFor(scenario.getRatesAsOf());
+
+        List<Employee> affected = new ArrayList<>();
+        List<Employee> changed = new ArrayList<>();
+        for (Employee employee : employees) {
+            if (scenario.appliesTo(employee)) {
+                affected.add(employee);
+                changed.add(applyTo(employee, scenario));
+            }
+        }
+
+        // The whole workforce goes through the column kernel at once, as is and under the scenario
+        int cutoff = attendance.getPeriod() == null ? 0 : attendance.getPeriod().getCutoff();
+        PayrollKernel.Columns baseline = PayrollKernel.Columns.of(affected, attendance);
+        PayrollKernel.Columns simulated = PayrollKernel.Columns.of(changed, attendance);
+        PayrollKernel.compute(baseline, sssTable, current, cutoff);
+        PayrollKernel.compute(simulated, sssTable, simulatedRates, cutoff);
+        Totals[] totals = {new Totals(), new Totals()};
+        totals[0].addAll(baseline);
+        totals[1].addAll(simulated);
+        return new Result(totals[0], totals[1], System.nanoTime() - start);
+    }
+
+    /**
+     * An in-memory copy of an employee with the scenario's changes applied.
+     */
+    static Employee applyTo(Employee employee, Scenario scenario) {
+        long factor = 10_000 + scenario.getRaiseBasisPoints();
+        return new Employee(employee.getEmployeeNumber(), employee.getLastName(), employee.getFirstName(),
+            employee.getPhoneNumber(), employee.getStatus(), employee.getPosition(), employee.getSupervisor(),
+            employee.getAddress(), employee.getSssNumber(), employee.getPhilHealthNumber(), employee.getTinNumber(),
+            employee.getPagIbigNumber(),
+            Money.percent(employee.getBasicSalaryCentavos(), factor, RoundingMode.HALF_UP),
+            Math.max(0, employee.getRiceSubsidyCentavos() + scenario.getRiceSubsidyDelta()),
+            Math.max(0, employee.getPhoneAllowanceCentavos() + scenario.getPhoneAllowanceDelta()),
+            Math.max(0, employee.getClothingAllowanceCentavos() + scenario.getClothingAllowanceDelta()),
+            Money.percent(employee.getGrossSemiMonthlyRateCentavos(), factor, RoundingMode.HALF_UP),
+            Money.percent(employee.getHourlyRateCentavos(), factor, RoundingMode.HALF_UP),
+            employee.getWithholdingTaxCentavos(), employee.getBirthday());
+    }
+}
@@ -1,5 +1,6 @@
 import javax.swing.JOptionPane;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.awt.*;
 import java.awt.image.BufferedImage;
@@ -9,6 +10,7 @@ import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.*;
 import java.io.File;
 import javax.swing.JFileChooser;
+import javax.swing.SwingWorker;
 
 
 
@@ -23,17 +25,66 @@ import javax.swing.JFileChooser;
  */
 
 public class Payslip extends javax.swing.JFrame {
+    private static final DateTimeFormatter PERIOD_FORMAT = DateTimeFormatter.ofPattern("MMMM yyyy", java.util.Locale.ENGLISH);
 
-    public Payslip(String empNo) {
+    private String empNo;
+    private Employee employee;
+    private SalaryComputation.PayrollResult shownResult; // What the window shows, for Download
+    private YearMonth shownPeriod;
 
+    public Payslip(String empNo) {
+        this.empNo = empNo;
         initComponents();
-
+        showEmployeeDetails();
     }
 
     // 👇 This allows creating Payslip with no parameters
     public Payslip() {
         initComponents();
     }
+
+    // Fills the employee details panel for the employee this payslip was opened for
+    private void showEmployeeDetails() {
+        try {
+            employee = EmployeeFileHandler.getEmployee(Integer.parseInt(empNo.trim())).orElse(null);
+        } catch (NumberFormatException e) {
+            employee = null;
+        }
+        if (employee == null) {
+            JOptionPane.showMessageDialog(this, "Employee not found: " + empNo, "Data Error", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        employeeNameLabel.setText(employee.getLastName() + ", " + employee.getFirstName());
+        employeeNumber.setText(String.valueOf(employee.getEmployeeNumber()));
+        position.setText(employee.getPosition());
+        employmentStatus.setText(employee.getStatus());
+        sssNumber.setText(employee.getSssNumber());
+        tinNumber.setText(employee.getTinNumber());
+        philhealthNumber.setText(employee.getPhilHealthNumber());
+        pagIbigNumber.setText(employee.getPagIbigNumber());
+    }
+
+    // Shows a computed payroll result in the salary details and summary panels
+    private void showPayroll(SalaryComputation.PayrollResult result, YearMonth period) {
+        shownResult = result;
+        shownPeriod = period;
+        payDate.setText(period.format(PERIOD_FORMAT));
+        hoursWorked.setText(String.format("%.2f", result.getHoursWorked()));
+        overtime.setText(String.format("%.2f", result.getOvertimeHours()));
+        hourlyRate.setText(Money.format(employee.getHourlyRateCentavos()));
+        riceSubsidy.setText(Money.format(employee.getRiceSubsidyCentavos()));
+        phoneAllowance.setText(Money.format(employee.getPhoneAllowanceCentavos()));
+        clothingAllowance.setText(Money.format(employee.getClothingAllowanceCentavos()));
+        sssPremiumLabel.setText(Money.format(result.getSss()));
+        philhealthContributionLabel.setText(Money.format(result.getPhilHealth()));
+        pagibigContributionLabel.setText(Money.format(result.getPagIbig()));
+        witholdingTaxLabel.setText(Money.format(result.getWithholdingTax()));
+        grossIncomeLabel.setText(Money.format(result.getGrossPay()));
+        benefitsLabel.setText(Money.format(result.getBenefits()));
+        totalDeductionsLabel.setText(Money.format(result.getTotalDeductions()));
+        otherAdjustments.setText(Money.format(0));
+        netPayLabel.setText(Money.format(result.getNetPay()));
+    }
     
 
     /**
@@ -581,12 +632,55 @@ public class Payslip extends javax.swing.JFrame {
     }//GEN-LAST:event_exitButtonActionPerformed
 
     private void downloadButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_downloadButtonActionPerformed
+        if (employee == null || shownResult == null) {
+            JOptionPane.showMessageDialog(this, "Check a payslip before downloading it.", "Input Error", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("payslip-" + employee.getEmployeeNumber() + "-" + shownPeriod + ".pdf"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        // The same renderer the batch jobs use, so the download matches what they produce. Rendering runs off
+        // the EDT; the slip is captured now so a later Check Payslip does not change what is saved
+        Employee slipEmployee = employee;
+        SalaryComputation.PayrollResult slipResult = shownResult;
+        YearMonth slipPeriod = shownPeriod;
+        File target = chooser.getSelectedFile();
+        downloadButton.setEnabled(false);
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() throws Exception {
+                PayslipRenderer.render(slipEmployee, slipResult, slipPeriod, target.toPath());
+                return null;
+            }
 
+            @Override
+            protected void done() {
+                downloadButton.setEnabled(true);
+                try {
+                    get();
+                    JOptionPane.showMessageDialog(Payslip.this, "Payslip saved to " + target, "Payslip", JOptionPane.INFORMATION_MESSAGE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (java.util.concurrent.ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    System.err.println("Error saving payslip: " + cause.getMessage());
+                    JOptionPane.showMessageDialog(Payslip.this, "Could not save the payslip: " + cause.getMessage(), "File Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
     }//GEN-LAST:event_downloadButtonActionPerformed
 
     private void checkPayslipButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_checkPayslipButtonActionPerformed
-
-
+        if (employee == null) {
+            JOptionPane.showMessageDialog(this, "Open the payslip from the main menu with a valid Employee Number.",
+                "Input Error", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        // JMonthChooser months are 0-based
+        YearMonth period = YearMonth.of(yearSelect.getYear(), monthSelect.getMonth() + 1);
+        showPayroll(PayrollCache.shared().get(employee, period), period); // Cached: reopening the same month is instant
     }//GEN-LAST:event_checkPayslipButtonActionPerformed
     
     /**
@@ -0,0 +1,219 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * `PayslipBatch` writes the payslip PDF of every employee in a finalized {@link PayrollBatch} run into one folder, as
+ * `payslip-<employee number>-yyyy-MM.pdf` for a month or `payslip-<employee number>-period-<id>.pdf` for a cutoff
+ * (see {@link PayPeriod#getId()}). It runs on a {@link Pipeline}:
+ * <pre>
+ * run results -&gt; render (one thread per core) -&gt; write (2 threads)
+ * </pre>
+ * Payslips show the run's results as they were finalized; nothing is recomputed.
+ * Rendering with {@link PayslipRenderer} is the costly step, so it gets every core, while writing
+ * overlaps with it. The queues are short, so only a few PDFs wait in memory at a time, however large the
+ * workforce. Each file is written under a temporary name and moved into place, so the folder never holds a
+ * half-written payslip. A payslip that cannot be rendered is reported and skipped. A failed write stops
+ * the batch, since the next write would most likely fail as well.
+ */
+public class PayslipBatch {
+    private static final int WRITERS = 2;
+
+    /**
+     * Receives progress after each payslip is written, on a writer thread, or skipped because it could not be
+     * rendered, on a render thread. The count includes skipped payslips.
+     */
+    public interface ProgressListener {
+        void onProgress(int payslipsDone, int payslipsTotal);
+    }
+
+    private PayslipBatch() {
+    }
+
+    /**
+     * Starts writing the payslips of a finalized run.
+     *
+     * @param run A run for a whole month or a semi-monthly cutoff.
+     * @param listener Progress callback, or null.
+     * @throws IllegalArgumentException if the run covers neither a whole month nor a cutoff.
+     */
+    public static Job start(PayrollBatch.BatchResult run, Path folder, ProgressListener listener) throws IOException {
+        PayPeriod period = run.getPeriod();
+        if (period != null) {
+            return start(run, "period-" + period.getId(),
+                slip -> PayslipRenderer.render(slip.employee, slip.result, period, slip.pdf), folder, listener);
+        }
+        YearMonth month = YearMonth.from(run.getPeriodStart());
+        if (!run.getPeriodStart().equals(month.atDay(1)) || !run.getPeriodEnd().equals(month.atEndOfMonth())) {
+            throw new IllegalArgumentException("Not a month or a cutoff: " + run.getPeriodStart() + " to " + run.getPeriodEnd());
+        }
+        return start(run, month.toString(),
+            slip -> PayslipRenderer.render(slip.employee, slip.result, month, slip.pdf), folder, listener);
+    }
+
+    private interface Renderer {
+        void render(Slip slip) throws IOException;
+    }
+
+    // One employee's payslip on its way through the pipeline
+    private static final class Slip {
+        final Employee employee;
+        final SalaryComputation.PayrollResult result;
+        ByteArrayOutputStream pdf;
+
+        Slip(Employee employee, SalaryComputation.PayrollResult result) {
+            this.employee = employee;
+            this.result = result;
+        }
+    }
+
+    private static Job start(PayrollBatch.BatchResult batch, String periodKey, Renderer renderer, Path folder,
+                             ProgressListener listener) throws IOException {
+        Files.createDirectories(folder);
+        List<Employee> employees = batch.getEmployees();
+        SalaryComputation.PayrollResult[] results = batch.getResults();
+        int total = results.length;
+        int cores = Runtime.getRuntime().availableProcessors();
+        AtomicInteger done = new AtomicInteger();
+        LongAdder bytes = new LongAdder();
+        List<Integer> failed = Collections.synchronizedList(new ArrayList<>());
+
+        Pipeline.Run run = Pipeline.<Slip>builder()
+            .stage("render", cores, cores * 2, (Slip slip) -> {
+                slip.pdf = new ByteArrayOutputStream(16 * 1024);
+                try {
+                    renderer.render(slip);
+                    return slip;
+                } catch (IOException | RuntimeException e) { // iText reports most failures as ExceptionConverter
+                    System.err.println("Error rendering payslip for employee " + slip.employee.getEmployeeNumber()
+                        + ": " + e.getMessage());
+                    failed.add(slip.employee.getEmployeeNumber());
+                    if (listener != null) {
+                        listener.onProgress(done.get() + failed.size(), total); // Skipped slips count, so the bar still reaches the total
+                    }
+                    return null;
+                }
+            })
+            .sink("write", WRITERS, cores * 2, (Slip slip) -> {
+                Path file = folder.resolve("payslip-" + slip.employee.getEmployeeNumber() + "-" + periodKey + ".pdf");
+                Path temp = folder.resolve(file.getFileName() + ".tmp");
+                try {
+                    try (OutputStream out = Files.newOutputStream(temp)) {
+                        slip.pdf.writeTo(out);
+                    }
+                    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    Files.deleteIfExists(temp); // Also after a write cut short by cancel
+                    throw e;
+                }
+                bytes.add(slip.pdf.size());
+                int count = done.incrementAndGet();
+                if (listener != null) {
+                    listener.onProgress(count + failed.size(), total);
+                }
+            })
+            .start(IntStream.range(0, total).mapToObj(i -> new Slip(employees.get(i), results[i])).iterator());
+        return new Job(run, folder, done, bytes, failed);
+    }
+
+    /**
+     * A running batch.
+     */
+    public static final class Job {
+
+        private final Pipeline.Run run;
+        private final Path folder;
+        private final AtomicInteger written;
+        private final LongAdder bytes;
+        private final List<Integer> failed;
+        private final long startNanos = System.nanoTime();
+
+        Job(Pipeline.Run run, Path folder, AtomicInteger written, LongAdder bytes, List<Integer> failed) {
+            this.run = run;
+            this.folder = folder;
+            this.written = written;
+            this.bytes = bytes;
+            this.failed = failed;
+        }
+
+        /**
+         * Waits for every payslip to be written.
+         *
+         * @throws ExecutionException if writing failed; the cause is the first exception.
+         * @throws java.util.concurrent.CancellationException if the batch was cancelled.
+         */
+        public Result await() throws ExecutionException, InterruptedException {
+            run.await();
+            List<Integer> failures;
+            synchronized (failed) {
+                failures = new ArrayList<>(failed);
+            }
+            Collections.sort(failures);
+            return new Result(folder, written.get(), bytes.sum(), failures, System.nanoTime() - startNanos);
+        }
+
+        /**
+         * Stops the batch. Payslips already written stay in the folder.
+         */
+        public void cancel() {
+            run.cancel();
+        }
+
+        public boolean isCancelled() {
+            return run.isCancelled();
+        }
+
+        /** Payslips written so far. */
+        public int getWritten() {
+            return written.get();
+        }
+
+        /** Per-stage throughput, for finding the slow stage. */
+        public List<Pipeline.StageMetrics> getMetrics() {
+            return run.getMetrics();
+        }
+    }
+
+    /**
+     * What a finished batch wrote.
+     */
+    public static class Result {
+
+        private final Path folder;
+        private final int written;
+        private final long bytes;
+        private final List<Integer> failed;
+        private final long elapsedNanos;
+
+        Result(Path folder, int written, long bytes, List<Integer> failed, long elapsedNanos) {
+            this.folder = folder;
+            this.written = written;
+            this.bytes = bytes;
+            this.failed = Collections.unmodifiableList(failed);
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public Path getFolder() { return folder; }
+        public int getWritten() { return written; }
+        /** Total size of the PDFs written. */
+        public long getBytes() { return bytes; }
+        /** Employee numbers whose payslip could not be rendered, in order. */
+        public List<Integer> getFailed() { return failed; }
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        public double getPayslipsPerMinute() {
+            return elapsedNanos == 0 ? 0 : written * 60e9 / elapsedNanos;
+        }
+    }
+}
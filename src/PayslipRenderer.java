@@ -0,0 +1,409 @@
+import com.itextpdf.text.BadElementException;
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Element;
+import com.itextpdf.text.Image;
+import com.itextpdf.text.PageSize;
+import com.itextpdf.text.pdf.BaseFont;
+import com.itextpdf.text.pdf.PdfContentByte;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.PdfWriter;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import javax.imageio.ImageIO;
+
+/**
+ * `PayslipRenderer` turns an employee's {@link SalaryComputation.PayrollResult} into a one-page PDF payslip
+ * with iText, laid out like the {@link Payslip} window: employee details, salary details, benefits,
+ * deductions and a summary ending in net pay. It uses no Swing, so batch jobs and headless servers can
+ * render payslips as well as the window's Download button.
+ * <p>
+ * Everything that is the same on every payslip (letterhead, logo, headings, labels and rules) is drawn
+ * once, on first use, into a small in-memory PDF. Each payslip imports that page as a form XObject, whose
+ * image streams iText copies as they are, already compressed, and then stamps only the employee's values
+ * at fixed positions. The logos are decoded once and scaled down to twice their printed size before they
+ * go into the template, and the fonts are standard `BaseFont`s shared by every document and never
+ * embedded. Rendering is thread-safe; each thread keeps its own reader of the template.
+ */
+public class PayslipRenderer {
+    private static final DateTimeFormatter MONTH_LABEL = DateTimeFormatter.ofPattern("MMMM yyyy", Locale.ENGLISH);
+    private static final BaseColor NAVY = new BaseColor(14, 49, 113); // The main menu's colour
+    private static final BaseColor SHADE = new BaseColor(232, 236, 244);
+
+    private static final String HEADER_IMAGE = "/logoHeader.png";
+    private static final String LOGO_IMAGE = "/Logo.png";
+    private static final float IMAGE_SCALE = 2; // Pixels per point kept in the template's images
+
+    // Page geometry in points; positions below are measured down from the top of the page
+    private static final float PAGE_HEIGHT = PageSize.A4.getHeight();
+    private static final float LEFT = 36;
+    private static final float RIGHT = PageSize.A4.getWidth() - 36;
+    private static final float MIDDLE = (LEFT + RIGHT) / 2;
+    private static final float HEADING_HEIGHT = 20;
+    private static final float ROW_HEIGHT = 18;
+    private static final float SECTION_GAP = 12;
+
+    private static final String[][] EMPLOYEE_LABELS = {
+        {"Employee ID", "SSS Number"},
+        {"Employee Position", "TIN Number"},
+        {"Status", "PhilHealth Number"},
+        {"", "Pag-Ibig Number"}
+    };
+    private static final String[][] DETAIL_LABELS = {
+        {"Hours Worked", "SSS Premium"},
+        {"Overtime", "PhilHealth"},
+        {"Hourly Rate", "Pag-Ibig"},
+        {"Rice Allowance", "Withholding Tax"},
+        {"Phone Allowance", ""},
+        {"Clothing Allowance", ""}
+    };
+    private static final String[] SUMMARY_LABELS = {"Gross Income", "Benefits", "Deductions", "Other Adjustment", "Net Pay"};
+
+    private static final float EMPLOYEE_TOP = 170;
+    private static final float DETAILS_TOP = EMPLOYEE_TOP + HEADING_HEIGHT + EMPLOYEE_LABELS.length * ROW_HEIGHT + SECTION_GAP;
+    private static final float SUMMARY_TOP = DETAILS_TOP + HEADING_HEIGHT + DETAIL_LABELS.length * ROW_HEIGHT + SECTION_GAP;
+
+    private static final BaseFont REGULAR = baseFont(BaseFont.HELVETICA);
+    private static final BaseFont BOLD = baseFont(BaseFont.HELVETICA_BOLD);
+
+    // The letterhead and logo, decoded and scaled on first use; null where an image is missing
+    private static volatile Image[] images;
+    // The static page, built on first use; PdfReader is not thread-safe, so each thread parses its own copy
+    private static volatile byte[] template;
+    private static final ThreadLocal<PdfReader> TEMPLATE_READER = ThreadLocal.withInitial(() -> {
+        try {
+            return new PdfReader(template());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    });
+
+    private PayslipRenderer() {
+    }
+
+    /**
+     * Renders a whole-month payslip.
+     */
+    public static void render(Employee employee, SalaryComputation.PayrollResult result, YearMonth month,
+                              OutputStream out) throws IOException {
+        render(employee, result, month.format(MONTH_LABEL), 0, out);
+    }
+
+    /**
+     * Renders a semi-monthly cutoff payslip.
+     */
+    public static void render(Employee employee, SalaryComputation.PayrollResult result, PayPeriod period,
+                              OutputStream out) throws IOException {
+        render(employee, result, period.getLabel(), period.getCutoff(), out);
+    }
+
+    /**
+     * Renders a whole-month payslip to a file, replacing any file already there.
+     */
+    public static void render(Employee employee, SalaryComputation.PayrollResult result, YearMonth month,
+                              Path file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            render(employee, result, month, out);
+        }
+    }
+
+    /**
+     * Renders a cutoff payslip to a file, replacing any file already there.
+     */
+    public static void render(Employee employee, SalaryComputation.PayrollResult result, PayPeriod period,
+                              Path file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            render(employee, result, period, out);
+        }
+    }
+
+    /**
+     * Renders a payslip for a period over the cached template and writes it to a stream, which is left open.
+     *
+     * @param periodLabel The pay period as printed, e.g. "June 2024".
+     * @param cutoff 1 or 2 for a semi-monthly cutoff, 0 for a whole month; the allowances shown are its share.
+     * @throws IOException if the stream cannot be written or iText cannot build the document.
+     */
+    static void render(Employee employee, SalaryComputation.PayrollResult result, String periodLabel, int cutoff,
+                       OutputStream out) throws IOException {
+        PdfReader reader;
+        try {
+            reader = TEMPLATE_READER.get();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Document document = new Document(PageSize.A4);
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
+            document.open();
+            PdfContentByte canvas = writer.getDirectContent();
+            canvas.addTemplate(writer.getImportedPage(reader, 1), 0, 0);
+            drawValues(canvas, employee, result, periodLabel, cutoff);
+            document.close();
+        } catch (DocumentException e) {
+            throw new IOException("Cannot render payslip for employee " + employee.getEmployeeNumber(), e);
+        }
+    }
+
+    /**
+     * Renders the same payslip without the template, drawing the static page and encoding the same pre-scaled
+     * logos into this one document. Only for {@link PayslipRendererBenchmark} to measure what the template saves.
+     */
+    static void renderWithoutTemplate(Employee employee, SalaryComputation.PayrollResult result, String periodLabel,
+                                      int cutoff, OutputStream out) throws IOException {
+        Document document = new Document(PageSize.A4);
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
+            document.open();
+            PdfContentByte canvas = writer.getDirectContent();
+            Image[] logos = images();
+            drawStatic(canvas, copy(logos[0]), copy(logos[1]));
+            drawValues(canvas, employee, result, periodLabel, cutoff);
+            document.close();
+        } catch (DocumentException e) {
+            throw new IOException("Cannot render payslip for employee " + employee.getEmployeeNumber(), e);
+        }
+    }
+
+    // Decoded once, like the template; two threads racing here decode identical images
+    private static Image[] images() throws IOException {
+        Image[] decoded = images;
+        if (decoded == null) {
+            try {
+                decoded = new Image[]{scaledImage(HEADER_IMAGE, 140, 60), scaledImage(LOGO_IMAGE, 80, 65)};
+            } catch (BadElementException e) {
+                throw new IOException("Cannot load the payslip images", e);
+            }
+            images = decoded;
+        }
+        return decoded;
+    }
+
+    // drawStatic() scales and positions the image it is given, so each document gets its own copy
+    private static Image copy(Image image) {
+        return image == null ? null : Image.getInstance(image);
+    }
+
+    // Built once; two threads racing here build identical bytes, so the lost copy is harmless
+    private static byte[] template() throws IOException {
+        byte[] bytes = template;
+        if (bytes == null) {
+            bytes = buildTemplate();
+            template = bytes;
+        }
+        return bytes;
+    }
+
+    private static byte[] buildTemplate() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+        Document document = new Document(PageSize.A4);
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            document.open();
+            Image[] logos = images();
+            drawStatic(writer.getDirectContent(), copy(logos[0]), copy(logos[1]));
+            writer.setPageEmpty(false); // Only the direct content was drawn on
+            document.close();
+        } catch (DocumentException e) {
+            throw new IOException("Cannot build the payslip template", e);
+        }
+        return out.toByteArray();
+    }
+
+    // Letterhead, logo, title, section headings, labels and rules: everything but the employee's values
+    private static void drawStatic(PdfContentByte canvas, Image letterhead, Image logo) throws DocumentException {
+        if (letterhead != null) {
+            letterhead.scaleToFit(140, 60);
+            letterhead.setAbsolutePosition(LEFT, y(36 + 60) + (60 - letterhead.getScaledHeight()));
+            canvas.addImage(letterhead);
+        }
+        if (logo != null) {
+            logo.scaleToFit(80, 65);
+            logo.setAbsolutePosition(RIGHT - logo.getScaledWidth(), y(104 + 65));
+            canvas.addImage(logo);
+        }
+        text(canvas, BOLD, 16, NAVY, "ELECTRONIC PAYSLIP OF:", LEFT, y(120), Element.ALIGN_LEFT);
+        text(canvas, REGULAR, 10, BaseColor.DARK_GRAY, "For Paydate:", LEFT, y(158), Element.ALIGN_LEFT);
+
+        heading(canvas, "EMPLOYEE DETAILS", EMPLOYEE_TOP);
+        labels(canvas, EMPLOYEE_LABELS, EMPLOYEE_TOP);
+        heading(canvas, "DETAILS", DETAILS_TOP);
+        labels(canvas, DETAIL_LABELS, DETAILS_TOP);
+
+        heading(canvas, "SUMMARY", SUMMARY_TOP);
+        int last = SUMMARY_LABELS.length - 1;
+        float netPayTop = SUMMARY_TOP + HEADING_HEIGHT + last * ROW_HEIGHT;
+        canvas.setColorFill(SHADE);
+        canvas.rectangle(LEFT, y(netPayTop + ROW_HEIGHT + 4), RIGHT - LEFT, ROW_HEIGHT + 4);
+        canvas.fill();
+        canvas.setColorStroke(NAVY);
+        canvas.moveTo(LEFT, y(netPayTop));
+        canvas.lineTo(RIGHT, y(netPayTop));
+        canvas.stroke();
+        for (int row = 0; row < last; row++) {
+            text(canvas, REGULAR, 10, BaseColor.DARK_GRAY, SUMMARY_LABELS[row], LEFT + 4, rowBaseline(SUMMARY_TOP, row),
+                Element.ALIGN_LEFT);
+            rule(canvas, LEFT, RIGHT, SUMMARY_TOP, row);
+        }
+        text(canvas, BOLD, 12, NAVY, SUMMARY_LABELS[last], LEFT + 4, rowBaseline(SUMMARY_TOP, last) - 2, Element.ALIGN_LEFT);
+    }
+
+    // The employee's values, right-aligned in their columns
+    private static void drawValues(PdfContentByte canvas, Employee employee, SalaryComputation.PayrollResult result,
+                                   String periodLabel, int cutoff) {
+        text(canvas, BOLD, 16, NAVY, employee.getLastName() + ", " + employee.getFirstName(), LEFT, y(140), Element.ALIGN_LEFT);
+        text(canvas, REGULAR, 10, BaseColor.BLACK, periodLabel, LEFT + 64, y(158), Element.ALIGN_LEFT);
+
+        values(canvas, EMPLOYEE_TOP, new String[][] {
+            {String.valueOf(employee.getEmployeeNumber()), employee.getSssNumber()},
+            {employee.getPosition(), employee.getTinNumber()},
+            {employee.getStatus(), employee.getPhilHealthNumber()},
+            {"", employee.getPagIbigNumber()}
+        });
+
+        long rice = SalaryComputation.cutoffShare(employee.getRiceSubsidyCentavos(), cutoff);
+        long phone = SalaryComputation.cutoffShare(employee.getPhoneAllowanceCentavos(), cutoff);
+        long clothing = result.getBenefits() - rice - phone; // So the lines add up to the benefits total exactly
+        values(canvas, DETAILS_TOP, new String[][] {
+            {String.format("%.2f", result.getHoursWorked()), Money.format(result.getSss())},
+            {String.format("%.2f", result.getOvertimeHours()), Money.format(result.getPhilHealth())},
+            {Money.format(employee.getHourlyRateCentavos()), Money.format(result.getPagIbig())},
+            {Money.format(rice), Money.format(result.getWithholdingTax())},
+            {Money.format(phone), ""},
+            {Money.format(clothing), ""}
+        });
+
+        String[] summary = {Money.format(result.getGrossPay()), Money.format(result.getBenefits()),
+            Money.format(result.getTotalDeductions()), Money.format(0)};
+        for (int row = 0; row < summary.length; row++) {
+            text(canvas, REGULAR, 10, BaseColor.BLACK, summary[row], RIGHT - 4, rowBaseline(SUMMARY_TOP, row), Element.ALIGN_RIGHT);
+        }
+        text(canvas, BOLD, 12, NAVY, Money.format(result.getNetPay()), RIGHT - 4,
+            rowBaseline(SUMMARY_TOP, summary.length) - 2, Element.ALIGN_RIGHT);
+    }
+
+    // A navy bar across the page with the section's name in white
+    private static void heading(PdfContentByte canvas, String heading, float top) {
+        canvas.setColorFill(NAVY);
+        canvas.rectangle(LEFT, y(top + HEADING_HEIGHT), RIGHT - LEFT, HEADING_HEIGHT);
+        canvas.fill();
+        text(canvas, BOLD, 11, BaseColor.WHITE, heading, LEFT + 4, y(top + 14), Element.ALIGN_LEFT);
+    }
+
+    // Two label/value column pairs per row, with a light rule under each row
+    private static void labels(PdfContentByte canvas, String[][] labels, float top) {
+        for (int row = 0; row < labels.length; row++) {
+            text(canvas, REGULAR, 10, BaseColor.DARK_GRAY, labels[row][0], LEFT + 4, rowBaseline(top, row), Element.ALIGN_LEFT);
+            text(canvas, REGULAR, 10, BaseColor.DARK_GRAY, labels[row][1], MIDDLE + 4, rowBaseline(top, row), Element.ALIGN_LEFT);
+            rule(canvas, LEFT, MIDDLE - 4, top, row);
+            rule(canvas, MIDDLE + 4, RIGHT, top, row);
+        }
+    }
+
+    private static void values(PdfContentByte canvas, float top, String[][] values) {
+        for (int row = 0; row < values.length; row++) {
+            text(canvas, REGULAR, 10, BaseColor.BLACK, values[row][0], MIDDLE - 8, rowBaseline(top, row), Element.ALIGN_RIGHT);
+            text(canvas, REGULAR, 10, BaseColor.BLACK, values[row][1], RIGHT - 4, rowBaseline(top, row), Element.ALIGN_RIGHT);
+        }
+    }
+
+    private static void rule(PdfContentByte canvas, float from, float to, float sectionTop, int row) {
+        float at = y(sectionTop + HEADING_HEIGHT + (row + 1) * ROW_HEIGHT);
+        canvas.setColorStroke(SHADE);
+        canvas.moveTo(from, at);
+        canvas.lineTo(to, at);
+        canvas.stroke();
+    }
+
+    private static void text(PdfContentByte canvas, BaseFont font, float size, BaseColor color, String text,
+                             float x, float y, int alignment) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        canvas.beginText();
+        canvas.setFontAndSize(font, size);
+        canvas.setColorFill(color);
+        canvas.showTextAligned(alignment, text, x, y, 0);
+        canvas.endText();
+    }
+
+    private static float rowBaseline(float sectionTop, int row) {
+        return y(sectionTop + HEADING_HEIGHT + row * ROW_HEIGHT + 13);
+    }
+
+    // Distance from the top of the page to PDF's bottom-up y
+    private static float y(float fromTop) {
+        return PAGE_HEIGHT - fromTop;
+    }
+
+    // Decodes an image once and resamples it to IMAGE_SCALE pixels per point of its printed box, keeping any
+    // transparency as a soft mask; a missing image leaves a blank space rather than failing the payslips
+    private static Image scaledImage(String name, float width, float height) throws IOException, BadElementException {
+        URL url = PayslipRenderer.class.getResource(name);
+        BufferedImage source = url == null ? null : ImageIO.read(url);
+        if (source == null) {
+            System.err.println("Payslip image not found: " + name);
+            return null;
+        }
+        double fit = Math.min(width / source.getWidth(), height / source.getHeight()) * IMAGE_SCALE;
+        int w = (int) Math.max(1, Math.min(source.getWidth(), Math.round(source.getWidth() * fit)));
+        int h = (int) Math.max(1, Math.min(source.getHeight(), Math.round(source.getHeight() * fit)));
+        BufferedImage scaled = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scaled.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+        g.drawImage(source, 0, 0, w, h, null);
+        g.dispose();
+
+        byte[] rgb = new byte[w * h * 3];
+        byte[] alpha = new byte[w * h];
+        boolean opaque = true;
+        int[] row = new int[w];
+        for (int yy = 0; yy < h; yy++) {
+            scaled.getRGB(0, yy, w, 1, row, 0, w);
+            for (int x = 0; x < w; x++) {
+                int argb = row[x];
+                int i = yy * w + x;
+                rgb[i * 3] = (byte) (argb >> 16);
+                rgb[i * 3 + 1] = (byte) (argb >> 8);
+                rgb[i * 3 + 2] = (byte) argb;
+                alpha[i] = (byte) (argb >>> 24);
+                opaque &= (argb >>> 24) == 0xFF;
+            }
+        }
+        Image image = Image.getInstance(w, h, 3, 8, rgb);
+        if (!opaque) {
+            Image mask = Image.getInstance(w, h, 1, 8, alpha);
+            try {
+                mask.makeMask();
+                image.setImageMask(mask);
+            } catch (DocumentException e) {
+                throw new IOException("Cannot mask payslip image " + name, e);
+            }
+        }
+        return image;
+    }
+
+    private static BaseFont baseFont(String name) {
+        try {
+            return BaseFont.createFont(name, BaseFont.WINANSI, BaseFont.NOT_EMBEDDED);
+        } catch (DocumentException | IOException e) {
+            throw new IllegalStateException("Standard font " + name + " is unavailable", e); // Built into iText
+        }
+    }
+}
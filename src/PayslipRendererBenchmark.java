@@ -0,0 +1,95 @@
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.IntStream;
+
+/**
+ * Measures {@link PayslipRenderer} throughput in payslips per second, rendering into memory so the disk
+ * does not count. It compares rendering over the cached template with drawing every payslip from scratch,
+ * on one thread, then runs the template path on every core. Both paths use the same pre-scaled logos, so
+ * the difference is what the template itself saves: drawing the static page and encoding the images.
+ * Payroll is computed once up front; only the PDF rendering is timed, after a warm-up.
+ *
+ * Run from the project directory, optionally passing the number of payslips and `yyyy-MM`:
+ * `java -Djava.awt.headless=true PayslipRendererBenchmark 1000 2024-06`
+ */
+public class PayslipRendererBenchmark {
+    private static final int WARMUP_PAYSLIPS = 100;
+
+    /**
+     * @param args the command line arguments
+     */
+    public static void main(String[] args) throws IOException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        YearMonth month = args.length > 1 ? YearMonth.parse(args[1]) : YearMonth.now();
+
+        List<Employee> employees = EmployeeFileHandler.loadEmployees();
+        if (employees.isEmpty()) {
+            System.err.println("No employees to benchmark with");
+            return;
+        }
+        AttendanceSummary attendance = AttendanceSummary.load(month);
+        SalaryComputation.PayrollResult[] results = new SalaryComputation.PayrollResult[employees.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = SalaryComputation.computeEmployee(employees.get(i), attendance);
+        }
+        String label = month.format(DateTimeFormatter.ofPattern("MMMM yyyy", Locale.ENGLISH));
+
+        // The first payslip also builds the template
+        long start = System.nanoTime();
+        renderAll(employees, results, label, 1, true, false);
+        System.out.printf("First payslip (builds the template): %.2f ms%n", (System.nanoTime() - start) / 1e6);
+
+        // Drawing from scratch is slow, so it gets fewer payslips
+        int uncachedCount = Math.max(1, Math.min(count, 50));
+        renderAll(employees, results, label, Math.min(WARMUP_PAYSLIPS, 10), false, false);
+        start = System.nanoTime();
+        long bytes = renderAll(employees, results, label, uncachedCount, false, false);
+        long uncachedNanos = System.nanoTime() - start;
+        report("Without template, 1 thread", uncachedCount, bytes, uncachedNanos);
+
+        renderAll(employees, results, label, WARMUP_PAYSLIPS, true, false);
+        start = System.nanoTime();
+        bytes = renderAll(employees, results, label, count, true, false);
+        long cachedNanos = System.nanoTime() - start;
+        report("With template, 1 thread", count, bytes, cachedNanos);
+        System.out.printf("Per-payslip cost with the template: %.1f%% of drawing from scratch (%.1fx faster)%n",
+            100.0 * cachedNanos / count / (uncachedNanos / (double) uncachedCount),
+            (uncachedNanos / (double) uncachedCount) / (cachedNanos / (double) count));
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        renderAll(employees, results, label, WARMUP_PAYSLIPS, true, true);
+        start = System.nanoTime();
+        bytes = renderAll(employees, results, label, count, true, true);
+        report("With template, all " + cores + " cores", count, bytes, System.nanoTime() - start);
+    }
+
+    // Renders `count` payslips, cycling through the employees; returns the total PDF size
+    private static long renderAll(List<Employee> employees, SalaryComputation.PayrollResult[] results, String label, int count,
+                                  boolean template, boolean parallel) {
+        IntStream indices = IntStream.range(0, count);
+        return (parallel ? indices.parallel() : indices).mapToLong(i -> {
+            int e = i % results.length;
+            ByteArrayOutputStream out = new ByteArrayOutputStream(64 * 1024);
+            try {
+                if (template) {
+                    PayslipRenderer.render(employees.get(e), results[e], label, 0, out);
+                } else {
+                    PayslipRenderer.renderWithoutTemplate(employees.get(e), results[e], label, 0, out);
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            return out.size();
+        }).sum();
+    }
+
+    private static void report(String label, int count, long bytes, long nanos) {
+        System.out.printf("%s: %,.0f payslips/s (%.2f ms each, %,d bytes each)%n", label, count * 1e9 / nanos,
+            nanos / 1e6 / count, bytes / count);
+    }
+}
@@ -0,0 +1,339 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * `Pipeline` runs a chain of stages (e.g. load, compute, render, deliver) on their own worker threads,
+ * linked by bounded queues, so I/O-bound and CPU-bound stages overlap instead of taking turns.
+ * Each stage has its own number of workers and input queue capacity; a full queue blocks the stage
+ * before it, so memory stays bounded however many items flow through. Items are not kept in order
+ * across a stage with more than one worker. A stage that returns null drops the item.
+ *
+ * <pre>
+ * Pipeline.Run run = Pipeline.&lt;Employee&gt;builder()
+ *     .stage("compute", cpus, 256, e -&gt; SalaryComputation.computeEmployee(e, attendance))
+ *     .sink("write", 1, 256, register::add)
+ *     .start(employees.iterator());
+ * long written = run.await();
+ * </pre>
+ *
+ * The first exception thrown by any stage cancels the run, and {@link Run#await()} rethrows it.
+ * {@link Run#cancel()} stops the source and interrupts every worker. {@link Run#getMetrics()} reports
+ * per-stage throughput, busy time and queue depth while the run is going.
+ */
+public final class Pipeline<T> {
+    // End-of-stream marker; each worker of a stage consumes one
+    private static final Object END = new Object();
+
+    /**
+     * One stage's work on one item. Returning null drops the item.
+     */
+    public interface Step<A, B> {
+        B apply(A item) throws Exception;
+    }
+
+    /**
+     * The last stage's work on one item.
+     */
+    public interface Sink<A> {
+        void accept(A item) throws Exception;
+    }
+
+    private final List<StageSpec> stages;
+
+    private Pipeline(List<StageSpec> stages) {
+        this.stages = stages;
+    }
+
+    /**
+     * Starts describing a pipeline whose source produces items of type `T`.
+     */
+    public static <T> Builder<T, T> builder() {
+        return new Builder<>(new ArrayList<>());
+    }
+
+    /**
+     * Adds stages in order; {@link #sink} ends the chain.
+     */
+    public static final class Builder<T, O> {
+
+        private final List<StageSpec> stages;
+
+        private Builder(List<StageSpec> stages) {
+            this.stages = stages;
+        }
+
+        /**
+         * Adds a stage.
+         *
+         * @param name Shown in metrics and thread names.
+         * @param workers Threads running the step.
+         * @param queueCapacity Items that may wait for this stage before the previous one blocks.
+         * @param step The work on each item.
+         */
+        @SuppressWarnings("unchecked")
+        public <N> Builder<T, N> stage(String name, int workers, int queueCapacity, Step<? super O, ? extends N> step) {
+            stages.add(new StageSpec(name, workers, queueCapacity, (Step<Object, Object>) step));
+            return new Builder<>(stages);
+        }
+
+        /**
+         * Adds the last stage and returns the finished pipeline, which can be started any number of times.
+         */
+        @SuppressWarnings("unchecked")
+        public Pipeline<T> sink(String name, int workers, int queueCapacity, Sink<? super O> sink) {
+            Sink<Object> last = (Sink<Object>) sink;
+            stages.add(new StageSpec(name, workers, queueCapacity, item -> {
+                last.accept(item);
+                return null;
+            }));
+            return new Pipeline<>(new ArrayList<>(stages));
+        }
+    }
+
+    private static final class StageSpec {
+        final String name;
+        final int workers;
+        final int queueCapacity;
+        final Step<Object, Object> step;
+
+        StageSpec(String name, int workers, int queueCapacity, Step<Object, Object> step) {
+            if (workers < 1 || queueCapacity < 1) {
+                throw new IllegalArgumentException("Stage " + name + " needs at least one worker and one queue slot");
+            }
+            this.name = name;
+            this.workers = workers;
+            this.queueCapacity = queueCapacity;
+            this.step = step;
+        }
+    }
+
+    /**
+     * Starts the pipeline on new threads, reading `source` on a thread of its own.
+     */
+    public Run start(Iterator<? extends T> source) {
+        Run run = new Run(stages);
+        run.start(source);
+        return run;
+    }
+
+    /**
+     * A started pipeline.
+     */
+    public static final class Run {
+
+        private final List<StageSpec> specs;
+        private final List<BlockingQueue<Object>> queues = new ArrayList<>();
+        private final List<AtomicInteger> liveWorkers = new ArrayList<>();
+        private final List<LongAdder> processed = new ArrayList<>();
+        private final List<LongAdder> busyNanos = new ArrayList<>();
+        private final List<Thread> threads = new ArrayList<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final long startNanos = System.nanoTime();
+        private volatile boolean cancelled;
+        private volatile long endNanos;
+
+        private Run(List<StageSpec> specs) {
+            this.specs = specs;
+            for (StageSpec spec : specs) {
+                queues.add(new ArrayBlockingQueue<>(spec.queueCapacity));
+                liveWorkers.add(new AtomicInteger(spec.workers));
+                processed.add(new LongAdder());
+                busyNanos.add(new LongAdder());
+            }
+        }
+
+        private void start(Iterator<?> source) {
+            synchronized (threads) {
+                threads.add(newThread("pipeline-source", () -> feed(source)));
+                for (int s = 0; s < specs.size(); s++) {
+                    int stage = s;
+                    for (int w = 0; w < specs.get(s).workers; w++) {
+                        threads.add(newThread("pipeline-" + specs.get(s).name + "-" + w, () -> work(stage)));
+                    }
+                }
+                for (Thread thread : threads) {
+                    thread.start();
+                }
+            }
+        }
+
+        private static Thread newThread(String name, Runnable body) {
+            Thread thread = new Thread(body, name);
+            thread.setDaemon(true); // Never keeps the application alive after its windows close
+            return thread;
+        }
+
+        private void feed(Iterator<?> source) {
+            BlockingQueue<Object> first = queues.get(0);
+            try {
+                while (!cancelled && source.hasNext()) {
+                    first.put(source.next());
+                }
+                endStage(first, specs.get(0).workers);
+            } catch (InterruptedException e) {
+                // Cancelled
+            } catch (Throwable e) {
+                fail(e); // Errors too, or the stages downstream would wait for the feeder forever
+            }
+        }
+
+        private void work(int stage) {
+            StageSpec spec = specs.get(stage);
+            BlockingQueue<Object> in = queues.get(stage);
+            BlockingQueue<Object> out = stage + 1 < queues.size() ? queues.get(stage + 1) : null;
+            try {
+                while (!cancelled) {
+                    Object item = in.take();
+                    if (item == END) {
+                        break;
+                    }
+                    long start = System.nanoTime();
+                    Object result = spec.step.apply(item);
+                    busyNanos.get(stage).add(System.nanoTime() - start);
+                    processed.get(stage).increment();
+                    if (result != null && out != null) {
+                        out.put(result);
+                    }
+                }
+                // The last worker out tells the next stage's workers the stream has ended
+                if (liveWorkers.get(stage).decrementAndGet() == 0) {
+                    if (out != null) {
+                        endStage(out, specs.get(stage + 1).workers);
+                    } else {
+                        endNanos = System.nanoTime();
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Cancelled
+            } catch (Throwable e) {
+                fail(e); // Errors too, or the stages downstream would wait for this worker forever
+            }
+        }
+
+        private void endStage(BlockingQueue<Object> queue, int workers) throws InterruptedException {
+            for (int i = 0; i < workers && !cancelled; i++) {
+                queue.put(END);
+            }
+        }
+
+        // Exceptions caused by a cancel (e.g. an interrupted write) are not failures
+        private void fail(Throwable e) {
+            if (!cancelled && failure.compareAndSet(null, e)) {
+                cancel();
+            }
+        }
+
+        /**
+         * Stops the run: the source stops reading, queued items are abandoned and every worker is interrupted.
+         * Items already handed to the sink stay delivered.
+         */
+        public void cancel() {
+            cancelled = true;
+            synchronized (threads) {
+                for (Thread thread : threads) {
+                    thread.interrupt();
+                }
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Waits for every stage to finish.
+         *
+         * @return The number of items the last stage processed.
+         * @throws ExecutionException if a stage threw; the cause is the first exception.
+         * @throws CancellationException if the run was cancelled.
+         * @throws InterruptedException if the waiting thread is interrupted; the run keeps going.
+         */
+        public long await() throws ExecutionException, InterruptedException {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            if (failure.get() != null) {
+                throw new ExecutionException(failure.get());
+            }
+            if (cancelled) {
+                throw new CancellationException("Pipeline cancelled");
+            }
+            return processed.get(processed.size() - 1).sum();
+        }
+
+        /**
+         * A snapshot of every stage, in order.
+         */
+        public List<StageMetrics> getMetrics() {
+            long end = endNanos;
+            long elapsed = (end != 0 ? end : System.nanoTime()) - startNanos;
+            List<StageMetrics> metrics = new ArrayList<>(specs.size());
+            for (int s = 0; s < specs.size(); s++) {
+                StageSpec spec = specs.get(s);
+                metrics.add(new StageMetrics(spec.name, spec.workers, processed.get(s).sum(), busyNanos.get(s).sum(),
+                    queues.get(s).size(), spec.queueCapacity, elapsed));
+            }
+            return Collections.unmodifiableList(metrics);
+        }
+    }
+
+    /**
+     * One stage's counters at the time {@link Run#getMetrics()} was called.
+     */
+    public static final class StageMetrics {
+
+        private final String name;
+        private final int workers;
+        private final long processed;
+        private final long busyNanos;
+        private final int queueDepth;
+        private final int queueCapacity;
+        private final long elapsedNanos;
+
+        StageMetrics(String name, int workers, long processed, long busyNanos, int queueDepth, int queueCapacity,
+                     long elapsedNanos) {
+            this.name = name;
+            this.workers = workers;
+            this.processed = processed;
+            this.busyNanos = busyNanos;
+            this.queueDepth = queueDepth;
+            this.queueCapacity = queueCapacity;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public String getName() { return name; }
+        public int getWorkers() { return workers; }
+        /** Items the stage has finished. */
+        public long getProcessed() { return processed; }
+        /** Time spent inside the step, summed over workers. */
+        public long getBusyNanos() { return busyNanos; }
+        /** Items waiting for this stage; a queue that stays full marks the bottleneck. */
+        public int getQueueDepth() { return queueDepth; }
+        public int getQueueCapacity() { return queueCapacity; }
+        public long getElapsedNanos() { return elapsedNanos; }
+
+        public double getItemsPerSecond() {
+            return elapsedNanos == 0 ? 0 : processed * 1e9 / elapsedNanos;
+        }
+
+        /** Share of the workers' time spent working, from 0 to 1. */
+        public double getUtilization() {
+            return elapsedNanos == 0 ? 0 : (double) busyNanos / ((double) elapsedNanos * workers);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %,d items, %,.0f/s, %.0f%% busy, queue %d/%d", name, processed,
+                getItemsPerSecond(), getUtilization() * 100, queueDepth, queueCapacity);
+        }
+    }
+}
@@ -0,0 +1,248 @@
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * `SalaryComputation` is the payroll engine: it turns an employee's rates and attendance into
+ * gross pay, statutory deductions and net pay for a pay period.
+ * A batch run reads attendance once into an {@link AttendanceSummary} and then computes every
+ * employee independently on the fork-join common pool. Each employee's result depends only on
+ * their own inputs and is stored at their own index, so a parallel run returns exactly what a
+ * sequential run does.
+ */
+public class SalaryComputation {
+    // Overtime is paid at 125% of the hourly rate
+    public static final long OVERTIME_PERCENT = 125;
+    // Extra pay on top of the hours already counted: +100% on regular holidays, +30% on special days
+    public static final long REGULAR_HOLIDAY_PREMIUM_PERCENT = 100;
+    public static final long SPECIAL_HOLIDAY_PREMIUM_PERCENT = 30;
+
+    // Each pay and deduction line is rounded to the centavo once, half-up, before it is summed
+    private static final RoundingMode ROUNDING = RoundingMode.HALF_UP;
+
+    /**
+     * Computes payroll for every employee for a month, in parallel.
+     *
+     * @param employees The employees to pay.
+     * @param yearMonth The pay period.
+     * @return One result per employee, in the same order as `employees`.
+     */
+    public static PayrollResult[] computePayroll(List<Employee> employees, YearMonth yearMonth) {
+        return computePayroll(employees, AttendanceSummary.load(yearMonth), true);
+    }
+
+    /**
+     * Computes payroll for every employee from pre-loaded attendance totals.
+     *
+     * @param employees The employees to pay.
+     * @param attendance Attendance totals covering the pay period.
+     * @param parallel Whether to fan out over the fork-join pool; results are identical either way.
+     * @return One result per employee, in the same order as `employees`.
+     */
+    public static PayrollResult[] computePayroll(List<Employee> employees, AttendanceSummary attendance, boolean parallel) {
+        PayrollResult[] results = new PayrollResult[employees.size()];
+        // Deduction tables are fetched once for the whole run, using the versions in force at the start of the period
+        SssContributionTable sssTable = SssContributionTable.getInstance();
+        StatutoryRates.Schedule rates = StatutoryRates.getInstance().scheduleFor(attendance.getStartDate());
+        IntStream indexes = IntStream.range(0, results.length);
+        if (parallel) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> results[i] = computeEmployee(employees.get(i), attendance, sssTable, rates));
+        return results;
+    }
+
+    /**
+     * Computes payroll for every employee for a semi-monthly cutoff, in parallel.
+     */
+    public static PayrollResult[] computePayroll(List<Employee> employees, PayPeriod period) {
+        return computePayroll(employees, AttendanceSummary.load(period), true);
+    }
+
+    /**
+     * Computes one employee's payroll for a semi-monthly cutoff, reading only that employee's attendance.
+     */
+    public static PayrollResult computeEmployee(Employee employee, PayPeriod period) {
+        return computeEmployee(employee, AttendanceSummary.load(period, employee.getEmployeeNumber()));
+    }
+
+    /**
+     * Computes one employee's payroll for a month, reading only that employee's attendance.
+     */
+    public static PayrollResult computeEmployee(Employee employee, YearMonth yearMonth) {
+        AttendanceSummary attendance = AttendanceSummary.load(yearMonth, employee.getEmployeeNumber());
+        return computeEmployee(employee, attendance);
+    }
+
+    /**
+     * Computes one employee's payroll from attendance totals.
+     */
+    public static PayrollResult computeEmployee(Employee employee, AttendanceSummary attendance) {
+        return computeEmployee(employee, attendance, SssContributionTable.getInstance(),
+            StatutoryRates.getInstance().scheduleFor(attendance.getStartDate()));
+    }
+
+    /**
+     * Computes one employee's payroll from attendance totals and deduction tables. Pure function of its inputs.
+     * When the attendance covers a semi-monthly cutoff, pay comes from that cutoff's hours, while allowances
+     * and deductions are the monthly amounts split across the two cutoffs (see {@link #cutoffShare}).
+     * All amounts are `long` centavos (see {@link Money}), so the result is exact and nothing is allocated
+     * apart from the result itself.
+     */
+    public static PayrollResult computeEmployee(Employee employee, AttendanceSummary attendance, SssContributionTable sssTable,
+                                                StatutoryRates.Schedule rates) {
+        int empNo = employee.getEmployeeNumber();
+        long rate = employee.getHourlyRateCentavos();
+
+        int workedMinutes = attendance.getWorkedMinutes(empNo);
+        int overtimeMinutes = attendance.getOvertimeMinutes(empNo);
+        int regularMinutes = Math.max(0, workedMinutes - overtimeMinutes);
+
+        // Pay for minutes at an hourly rate: rate * minutes / 60, scaled by a percentage where needed
+        long basicPay = Money.multiply(rate, regularMinutes, 60, ROUNDING);
+        long overtimePay = Money.multiply(rate, overtimeMinutes * OVERTIME_PERCENT, 60 * 100, ROUNDING);
+        long holidayPay = Money.multiply(rate, attendance.getRegularHolidayMinutes(empNo) * REGULAR_HOLIDAY_PREMIUM_PERCENT, 60 * 100, ROUNDING)
+            + Money.multiply(rate, attendance.getSpecialHolidayMinutes(empNo) * SPECIAL_HOLIDAY_PREMIUM_PERCENT, 60 * 100, ROUNDING);
+        long grossPay = basicPay + overtimePay + holidayPay;
+        int cutoff = attendance.getPeriod() == null ? 0 : attendance.getPeriod().getCutoff();
+        long benefits = cutoffShare(employee.getTotalAllowancesCentavos(), cutoff);
+
+        long monthlySalary = employee.getBasicSalaryCentavos();
+        long sss = cutoffShare(sssTable.lookup(monthlySalary), cutoff);
+        long philHealth = cutoffShare(rates.philHealth.amount(monthlySalary), cutoff);
+        long pagIbig = cutoffShare(rates.pagIbig.amount(monthlySalary), cutoff);
+        // Tax is on the period's taxable pay: gross less mandatory contributions (allowances are non-taxable).
+        // The table is monthly, so a cutoff's taxable pay is doubled and the tax split like the other deductions.
+        long taxable = grossPay - sss - philHealth - pagIbig;
+        long withholdingTax = cutoff == 0 ? rates.withholdingTax.amount(taxable)
+            : cutoffShare(rates.withholdingTax.amount(taxable * 2), cutoff);
+        long totalDeductions = sss + philHealth + pagIbig + withholdingTax;
+
+        long netPay = grossPay + benefits - totalDeductions;
+        return new PayrollResult(empNo, workedMinutes, overtimeMinutes, basicPay, overtimePay, holidayPay, grossPay,
+            benefits, sss, philHealth, pagIbig, withholdingTax, totalDeductions, netPay);
+    }
+
+    /**
+     * A cutoff's share of a monthly amount: the first cutoff gets half rounded down and the second the rest,
+     * so the two always add up to the monthly amount exactly. Cutoff 0 means the whole month.
+     */
+    static long cutoffShare(long monthly, int cutoff) {
+        if (cutoff == 0) {
+            return monthly;
+        }
+        long firstHalf = Math.floorDiv(monthly, 2);
+        return cutoff == 1 ? firstHalf : monthly - firstHalf;
+    }
+
+    /**
+     * Hash of every employee field {@link #computeEmployee} reads. Two employees with the same fingerprint
+     * and the same attendance get the same result, which is what caches and incremental runs rely on.
+     */
+    public static long employeeFingerprint(Employee employee) {
+        long h = mix(0, employee.getEmployeeNumber());
+        h = mix(h, employee.getBasicSalaryCentavos());
+        h = mix(h, employee.getHourlyRateCentavos());
+        h = mix(h, employee.getRiceSubsidyCentavos());
+        h = mix(h, employee.getPhoneAllowanceCentavos());
+        h = mix(h, employee.getClothingAllowanceCentavos());
+        h = mix(h, employee.getGrossSemiMonthlyRateCentavos());
+        return mix(h, employee.getWithholdingTaxCentavos());
+    }
+
+    /**
+     * Fingerprint of everything one employee's result depends on: their fields, their attendance punches in the
+     * summary, the holiday calendar that classified those punches, and the deduction table versions
+     * (`tableVersion`, mixed from the SSS and statutory table versions).
+     */
+    static long inputFingerprint(Employee employee, AttendanceSummary attendance, long tableVersion) {
+        long h = mix(employeeFingerprint(employee), attendance.getAttendanceHash(employee.getEmployeeNumber()));
+        h = mix(h, attendance.getCalendarVersion());
+        return mix(h, tableVersion);
+    }
+
+    /**
+     * Folds a value into a running 64-bit hash.
+     */
+    static long mix(long h, long value) {
+        h = (h ^ value) * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    /**
+     * One employee's computed pay for a period. Amounts are in centavos; format them with {@link Money#format(long)}.
+     */
+    public static class PayrollResult {
+
+        private final int employeeNumber;
+        private final int minutesWorked;
+        private final int overtimeMinutes;
+        private final long basicPay;
+        private final long overtimePay;
+        private final long holidayPay;
+        private final long grossPay;
+        private final long benefits;
+        private final long sss;
+        private final long philHealth;
+        private final long pagIbig;
+        private final long withholdingTax;
+        private final long totalDeductions;
+        private final long netPay;
+
+        public PayrollResult(int employeeNumber, int minutesWorked, int overtimeMinutes, long basicPay,
+                             long overtimePay, long holidayPay, long grossPay, long benefits, long sss,
+                             long philHealth, long pagIbig, long withholdingTax, long totalDeductions, long netPay) {
+            this.employeeNumber = employeeNumber;
+            this.minutesWorked = minutesWorked;
+            this.overtimeMinutes = overtimeMinutes;
+            this.basicPay = basicPay;
+            this.overtimePay = overtimePay;
+            this.holidayPay = holidayPay;
+            this.grossPay = grossPay;
+            this.benefits = benefits;
+            this.sss = sss;
+            this.philHealth = philHealth;
+            this.pagIbig = pagIbig;
+            this.withholdingTax = withholdingTax;
+            this.totalDeductions = totalDeductions;
+            this.netPay = netPay;
+        }
+
+        public int getEmployeeNumber() { return employeeNumber; }
+        public int getMinutesWorked() { return minutesWorked; }
+        public int getOvertimeMinutes() { return overtimeMinutes; }
+        public double getHoursWorked() { return minutesWorked / 60.0; }
+        public double getOvertimeHours() { return overtimeMinutes / 60.0; }
+        public long getBasicPay() { return basicPay; }
+        public long getOvertimePay() { return overtimePay; }
+        public long getHolidayPay() { return holidayPay; }
+        public long getGrossPay() { return grossPay; }
+        public long getBenefits() { return benefits; }
+        public long getSss() { return sss; }
+        public long getPhilHealth() { return philHealth; }
+        public long getPagIbig() { return pagIbig; }
+        public long getWithholdingTax() { return withholdingTax; }
+        public long getTotalDeductions() { return totalDeductions; }
+        public long getNetPay() { return netPay; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof PayrollResult)) {
+                return false;
+            }
+            PayrollResult r = (PayrollResult) o;
+            return employeeNumber == r.employeeNumber && minutesWorked == r.minutesWorked && overtimeMinutes == r.overtimeMinutes
+                && basicPay == r.basicPay && overtimePay == r.overtimePay && holidayPay == r.holidayPay
+                && grossPay == r.grossPay && benefits == r.benefits && sss == r.sss && philHealth == r.philHealth
+                && pagIbig == r.pagIbig && withholdingTax == r.withholdingTax
+                && totalDeductions == r.totalDeductions && netPay == r.netPay;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(mix(mix(mix(employeeNumber, grossPay), totalDeductions), netPay));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * `SssContributionTable` holds the employee SSS contribution brackets from `SSS Contribution.csv`.
+ * The file is parsed once into two sorted primitive arrays of centavos (bracket lower bounds and contributions),
+ * so a lookup is a binary search with no allocation. {@link #getInstance()} re-reads the file when
+ * its modification time changes; batch payroll calls it once per run and then only uses
+ * {@link #lookup(long)}.
+ */
+public class SssContributionTable {
+    private static final String CSV_PATH = "src/data/SSS Contribution.csv";
+
+    private static SssContributionTable instance;
+
+    private final long[] lowerBounds;    // Bracket i covers [lowerBounds[i], lowerBounds[i + 1]), in centavos
+    private final long[] contributions;
+    private final long lastModified;
+
+    private SssContributionTable(long[] lowerBounds, long[] contributions, long lastModified) {
+        this.lowerBounds = lowerBounds;
+        this.contributions = contributions;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Returns the table, reloading it if the CSV changed since it was last read.
+     */
+    public static synchronized SssContributionTable getInstance() {
+        long modified = new File(CSV_PATH).lastModified();
+        if (instance == null || instance.lastModified != modified) {
+            instance = load(CSV_PATH, modified);
+        }
+        return instance;
+    }
+
+    /**
+     * Employee SSS contribution, in centavos, for a monthly compensation in centavos.
+     * The first bracket ("Below 3,250") starts at 0 and the last ("24,750 - Over") has no upper bound.
+     */
+    public long lookup(long monthlyCompensation) {
+        if (lowerBounds.length == 0) {
+            return 0;
+        }
+        int index = Arrays.binarySearch(lowerBounds, monthlyCompensation);
+        if (index < 0) {
+            index = -index - 2; // Insertion point - 1: the last bound below the compensation
+        }
+        return contributions[Math.max(0, index)];
+    }
+
+    public int size() {
+        return lowerBounds.length;
+    }
+
+    // Bracket i, for the columnar kernels
+    long lowerBound(int bracket) {
+        return lowerBounds[bracket];
+    }
+
+    long contribution(int bracket) {
+        return contributions[bracket];
+    }
+
+    /**
+     * Changes whenever the table is reloaded from a modified file.
+     */
+    public long getVersion() {
+        return lastModified;
+    }
+
+    /**
+     * Parses rows such as `"Below 3,250",,,135`, `3250,-,3750,157.5` and `24750,-,Over,"1,125.00"`.
+     * Rows that cannot be parsed are logged and skipped.
+     */
+    private static SssContributionTable load(String path, long modified) {
+        long[] bounds = new long[64];
+        long[] amounts = new long[64];
+        int count = 0;
+
+        try (CSVReader reader = new CSVReader(new FileReader(path))) {
+            reader.skip(1); // Skip header row
+            String[] line;
+            while ((line = reader.readNext()) != null) {
+                if (line.length < 4 || line[0].trim().isEmpty()) {
+                    continue;
+                }
+                try {
+                    String from = line[0].trim();
+                    // "Below X" is the first bracket, which starts at zero
+                    long lower = from.regionMatches(true, 0, "Below", 0, 5) ? 0 : Money.parse(from);
+                    long contribution = Money.parse(line[3]);
+                    if (count == bounds.length) {
+                        bounds = Arrays.copyOf(bounds, count * 2);
+                        amounts = Arrays.copyOf(amounts, count * 2);
+                    }
+                    bounds[count] = lower;
+                    amounts[count] = contribution;
+                    count++;
+                } catch (NumberFormatException | ArithmeticException e) {
+                    System.err.println("Skipping invalid SSS bracket: " + String.join(",", line));
+                }
+            }
+        } catch (IOException | CsvValidationException e) {
+            System.err.println("Failed to read SSS contribution table: " + e.getMessage());
+        }
+
+        sortByLowerBound(bounds, amounts, count);
+        return new SssContributionTable(Arrays.copyOf(bounds, count), Arrays.copyOf(amounts, count), modified);
+    }
+
+    // The CSV is already ordered; this keeps lookups correct if someone edits it out of order.
+    private static void sortByLowerBound(long[] bounds, long[] amounts, int count) {
+        for (int i = 1; i < count; i++) {
+            long bound = bounds[i];
+            long amount = amounts[i];
+            int j = i - 1;
+            while (j >= 0 && bounds[j] > bound) {
+                bounds[j + 1] = bounds[j];
+                amounts[j + 1] = amounts[j];
+                j--;
+            }
+            bounds[j + 1] = bound;
+            amounts[j + 1] = amount;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * `StatutoryRates` holds the effective-dated PhilHealth, Pag-IBIG and withholding tax tables from `statutory_rates.csv`.
+ * Every table is a list of brackets sharing one formula:
+ * `fixed + rate * (clamp(base, floor, ceiling) - lower)` for the last bracket whose lower bound is below the base,
+ * which covers flat-rate premiums with a floor and ceiling as well as the graduated TRAIN tax brackets.
+ * Each version of a table is compiled at load into padded primitive arrays, so a lookup is a fixed
+ * three-step branch-free search plus a few array reads. A batch run picks the version for its period once
+ * with {@link #scheduleFor(LocalDate)} and then only calls {@link RateTable#amount(long)}.
+ */
+public class StatutoryRates {
+    private static final String CSV_PATH = "src/data/statutory_rates.csv";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+    public static final String PHILHEALTH = "PHILHEALTH";
+    public static final String PAGIBIG = "PAGIBIG";
+    public static final String WITHHOLDING_TAX = "WITHHOLDING_TAX";
+
+    // Brackets per table version; versions are padded to this size so the search is always three steps
+    static final int MAX_BRACKETS = 8;
+
+    private static StatutoryRates instance;
+
+    private final Map<String, long[]> effectiveDays;     // Table -> sorted epoch days each version starts on
+    private final Map<String, RateTable[]> versions;     // Table -> versions, parallel to effectiveDays
+    private final long lastModified;
+
+    private StatutoryRates(Map<String, long[]> effectiveDays, Map<String, RateTable[]> versions, long lastModified) {
+        this.effectiveDays = effectiveDays;
+        this.versions = versions;
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Returns the tables, reloading them if the CSV changed since it was last read.
+     */
+    public static synchronized StatutoryRates getInstance() {
+        long modified = new File(CSV_PATH).lastModified();
+        if (instance == null || instance.lastModified != modified) {
+            instance = load(CSV_PATH, modified);
+        }
+        return instance;
+    }
+
+    /**
+     * Changes whenever the table is reloaded from a modified file.
+     */
+    public long getVersion() {
+        return lastModified;
+    }
+
+    /**
+     * The versions of every table in force on a date.
+     */
+    public Schedule scheduleFor(LocalDate date) {
+        return new Schedule(table(PHILHEALTH, date), table(PAGIBIG, date), table(WITHHOLDING_TAX, date));
+    }
+
+    /**
+     * The version of one table in force on a date, or an all-zero table if none had started yet.
+     */
+    public RateTable table(String name, LocalDate date) {
+        long[] days = effectiveDays.get(name);
+        if (days == null) {
+            return RateTable.ZERO;
+        }
+        int index = Arrays.binarySearch(days, date.toEpochDay());
+        if (index < 0) {
+            index = -index - 2; // Latest version that started before the date
+        }
+        return index < 0 ? RateTable.ZERO : versions.get(name)[index];
+    }
+
+    /**
+     * The tables that apply to one pay period.
+     */
+    public static final class Schedule {
+        public final RateTable philHealth;     // Employee share of the premium, on monthly basic salary
+        public final RateTable pagIbig;        // Employee contribution, on monthly basic salary
+        public final RateTable withholdingTax; // Monthly tax, on taxable compensation
+
+        Schedule(RateTable philHealth, RateTable pagIbig, RateTable withholdingTax) {
+            this.philHealth = philHealth;
+            this.pagIbig = pagIbig;
+            this.withholdingTax = withholdingTax;
+        }
+    }
+
+    /**
+     * One compiled version of a table. All amounts are centavos and rates are basis points.
+     */
+    public static final class RateTable {
+        static final RateTable ZERO = new RateTable(new long[]{0}, new long[]{0}, new long[]{0}, new long[]{0}, new long[]{Long.MAX_VALUE}, 1);
+
+        private final long[] lower = new long[MAX_BRACKETS];
+        private final long[] fixed = new long[MAX_BRACKETS];
+        private final long[] rate = new long[MAX_BRACKETS];
+        private final long[] floor = new long[MAX_BRACKETS];
+        private final long[] ceiling = new long[MAX_BRACKETS];
+
+        RateTable(long[] lower, long[] fixed, long[] rate, long[] floor, long[] ceiling, int count) {
+            // Unused slots get an unreachable lower bound, so the search never lands on them
+            Arrays.fill(this.lower, Long.MAX_VALUE);
+            System.arraycopy(lower, 0, this.lower, 0, count);
+            System.arraycopy(fixed, 0, this.fixed, 0, count);
+            System.arraycopy(rate, 0, this.rate, 0, count);
+            System.arraycopy(floor, 0, this.floor, 0, count);
+            System.arraycopy(ceiling, 0, this.ceiling, 0, count);
+        }
+
+        /**
+         * The amount due on a base, in centavos, rounded half-up.
+         */
+        public long amount(long base) {
+            long x = Math.max(0, base);
+            // Branch-free search for the last bracket whose lower bound is below x: three fixed steps
+            // over 8 slots, each adding the step when (lower - x) is negative. Bracket 0 is the fallback.
+            int i = 0;
+            i += 4 & (int) ((lower[i + 4] - x) >> 63);
+            i += 2 & (int) ((lower[i + 2] - x) >> 63);
+            i += 1 & (int) ((lower[i + 1] - x) >> 63);
+
+            long clamped = Math.min(Math.max(x, floor[i]), ceiling[i]);
+            return fixed[i] + Money.percent(Math.max(0, clamped - lower[i]), rate[i], RoundingMode.HALF_UP);
+        }
+
+        public int size() {
+            int count = 0;
+            while (count < MAX_BRACKETS && lower[count] != Long.MAX_VALUE) {
+                count++;
+            }
+            return count;
+        }
+
+        // Bracket fields for the columnar kernels; slots at and past size() are padding
+        long lowerBound(int bracket) { return lower[bracket]; }
+        long fixedAmount(int bracket) { return fixed[bracket]; }
+        long rateBasisPoints(int bracket) { return rate[bracket]; }
+        long baseFloor(int bracket) { return floor[bracket]; }
+        long baseCeiling(int bracket) { return ceiling[bracket]; }
+    }
+
+    /**
+     * Reads rows such as `WITHHOLDING_TAX,01/01/2023,33333,1875,20,,`, groups them by table and effective date,
+     * and compiles each group. Blank floors mean 0 and blank ceilings mean no ceiling. Rows that cannot be parsed
+     * are logged and skipped.
+     */
+    private static StatutoryRates load(String path, long modified) {
+        // Table -> effective day -> rows of {lower, fixed, rate, floor, ceiling}
+        Map<String, TreeMap<Long, List<long[]>>> rows = new TreeMap<>();
+
+        try (CSVReader reader = new CSVReader(new FileReader(path))) {
+            reader.skip(1); // Skip header row
+            String[] line;
+            while ((line = reader.readNext()) != null) {
+                if (line.length < 7 || line[0].trim().isEmpty()) {
+                    continue;
+                }
+                try {
+                    long effective = LocalDate.parse(line[1].trim(), DATE_FORMAT).toEpochDay();
+                    long[] bracket = {
+                        Money.parse(line[2]),
+                        Money.parse(line[3]),
+                        Money.parse(line[4]), // "2.5" percent parses to 250, i.e. basis points
+                        line[5].trim().isEmpty() ? 0 : Money.parse(line[5]),
+                        line[6].trim().isEmpty() ? Long.MAX_VALUE : Money.parse(line[6])
+                    };
+                    rows.computeIfAbsent(line[0].trim().toUpperCase(), k -> new TreeMap<>())
+                        .computeIfAbsent(effective, k -> new ArrayList<>())
+                        .add(bracket);
+                } catch (DateTimeParseException | NumberFormatException | ArithmeticException e) {
+                    System.err.println("Skipping invalid statutory rate: " + String.join(",", line));
+                }
+            }
+        } catch (IOException | CsvValidationException e) {
+            System.err.println("Failed to read statutory rates: " + e.getMessage());
+        }
+
+        Map<String, long[]> effectiveDays = new TreeMap<>();
+        Map<String, RateTable[]> versions = new TreeMap<>();
+        for (Map.Entry<String, TreeMap<Long, List<long[]>>> table : rows.entrySet()) {
+            long[] days = new long[table.getValue().size()];
+            RateTable[] compiled = new RateTable[days.length];
+            int v = 0;
+            for (Map.Entry<Long, List<long[]>> version : table.getValue().entrySet()) {
+                days[v] = version.getKey();
+                compiled[v++] = compile(table.getKey(), version.getValue());
+            }
+            effectiveDays.put(table.getKey(), days);
+            versions.put(table.getKey(), compiled);
+        }
+        return new StatutoryRates(effectiveDays, versions, modified);
+    }
+
+    private static RateTable compile(String table, List<long[]> brackets) {
+        brackets.sort((a, b) -> Long.compare(a[0], b[0]));
+        if (brackets.size() > MAX_BRACKETS) {
+            System.err.println("Too many brackets in " + table + ", keeping the first " + MAX_BRACKETS);
+        }
+        int count = Math.min(brackets.size(), MAX_BRACKETS);
+        long[][] columns = new long[5][count];
+        for (int i = 0; i < count; i++) {
+            for (int c = 0; c < 5; c++) {
+                columns[c][i] = brackets.get(i)[c];
+            }
+        }
+        return new RateTable(columns[0], columns[1], columns[2], columns[3], columns[4], count);
+    }
+}
@@ -0,0 +1,294 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * `ThirteenthMonthPay` computes every employee's 13th-month pay for a year in one batch: one twelfth of the
+ * basic pay actually earned in the calendar year (PD 851), rounded half up to the centavo. Basic pay is
+ * read either from the {@link YtdLedger} in O(1) per employee, or, for a year whose periods were never
+ * posted, from the finished {@link PayrollBatch} checkpoints of each month, the twelve months being read
+ * in parallel. Both are filled by finalizing periods on the {@link BulkPayslips} screen; {@link #forYear}
+ * picks the source, and the main menu saves the result with {@link #export}.
+ * <p>
+ * Because the amount follows the basic pay earned, a mid-year hire (or a mid-year separation) is pro-rated
+ * by the pay for the months they actually worked. The employee master has no hire or separation date, so
+ * the months worked are taken from attendance and reported alongside the amount, against the months whose
+ * payroll was found.
+ */
+public class ThirteenthMonthPay {
+    private static final RoundingMode ROUNDING = RoundingMode.HALF_UP;
+    private static final int MONTHS = 12;
+
+    /** 13th-month pay and other benefits up to ₱90,000 a year are not taxable (TRAIN law). */
+    public static final long TAX_EXEMPT_CEILING = 9_000_000;
+
+    /**
+     * Where a batch read the year's basic pay from.
+     */
+    public enum Source {
+        /** The year-to-date ledger. */
+        LEDGER,
+        /** The stored results of each month's (or cutoff's) finished payroll run. */
+        PAYROLL_RUNS
+    }
+
+    private ThirteenthMonthPay() {
+    }
+
+    /**
+     * Computes the year's entitlements from the ledger, or from the stored payroll runs if nothing was posted
+     * to the ledger for the year.
+     *
+     * @throws IOException if a checkpoint cannot be read.
+     */
+    public static Summary forYear(List<Employee> employees, int year) throws IOException {
+        YtdLedger ledger = YtdLedger.forYear(year);
+        return ledger.size() > 0 ? fromLedger(employees, ledger) : fromPayrollRuns(employees, year);
+    }
+
+    /**
+     * Computes the year's entitlements from the year-to-date ledger.
+     */
+    public static Summary fromLedger(List<Employee> employees, int year) {
+        return fromLedger(employees, YtdLedger.forYear(year));
+    }
+
+    public static Summary fromLedger(List<Employee> employees, YtdLedger ledger) {
+        int[] empNos = employeeNumbers(employees);
+        long[] basicPay = new long[empNos.length];
+        int[] monthMasks = new int[empNos.length];
+        ledger.read(empNos, YtdLedger.BASIC_PAY, basicPay, monthMasks);
+        int postedMonths = 0;
+        for (int month = 1; month <= MONTHS; month++) {
+            YearMonth yearMonth = YearMonth.of(ledger.getYear(), month);
+            if (ledger.isPosted(yearMonth)
+                    || (ledger.isPosted(PayPeriod.of(yearMonth, 1)) && ledger.isPosted(PayPeriod.of(yearMonth, 2)))) {
+                postedMonths |= 1 << (month - 1);
+            }
+        }
+        return summarize(ledger.getYear(), Source.LEDGER, empNos, basicPay, monthMasks, postedMonths);
+    }
+
+    /**
+     * Computes the year's entitlements from the stored results of its payroll runs. Each month is read from
+     * its whole-month run, or from its two cutoff runs when there is no finished whole-month run; a month
+     * with neither contributes nothing and is left out of {@link Summary#getMonthsCovered()}.
+     *
+     * @throws IOException if a checkpoint cannot be read.
+     */
+    public static Summary fromPayrollRuns(List<Employee> employees, int year) throws IOException {
+        int[] empNos = employeeNumbers(employees);
+        Map<Integer, Integer> index = new HashMap<>(empNos.length * 2);
+        for (int i = 0; i < empNos.length; i++) {
+            index.put(empNos[i], i);
+        }
+        // One basic-pay column per month, so the months can be read without sharing anything
+        long[][] monthly = new long[MONTHS][];
+        IOException[] failure = new IOException[1];
+        IntStream.rangeClosed(1, MONTHS).parallel().forEach(month -> {
+            try {
+                monthly[month - 1] = readMonth(YearMonth.of(year, month), index, empNos.length);
+            } catch (IOException e) {
+                synchronized (failure) {
+                    failure[0] = e;
+                }
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+
+        long[] basicPay = new long[empNos.length];
+        int[] monthMasks = new int[empNos.length];
+        int coveredMonths = 0;
+        for (int m = 0; m < MONTHS; m++) {
+            long[] column = monthly[m];
+            if (column == null) {
+                continue;
+            }
+            coveredMonths |= 1 << m;
+            for (int i = 0; i < empNos.length; i++) {
+                basicPay[i] += column[i];
+                if (column[i] > 0) {
+                    monthMasks[i] |= 1 << m;
+                }
+            }
+        }
+        return summarize(year, Source.PAYROLL_RUNS, empNos, basicPay, monthMasks, coveredMonths);
+    }
+
+    // Basic pay per employee for one month, or null if the month has no finished run
+    private static long[] readMonth(YearMonth month, Map<Integer, Integer> index, int size) throws IOException {
+        SalaryComputation.PayrollResult[] whole = PayrollBatch.readResults(PayrollBatch.checkpointPath(month));
+        if (whole != null) {
+            long[] column = new long[size];
+            add(whole, index, column);
+            return column;
+        }
+        SalaryComputation.PayrollResult[] first = PayrollBatch.readResults(PayrollBatch.checkpointPath(PayPeriod.of(month, 1)));
+        SalaryComputation.PayrollResult[] second = PayrollBatch.readResults(PayrollBatch.checkpointPath(PayPeriod.of(month, 2)));
+        if (first == null || second == null) {
+            return null;
+        }
+        long[] column = new long[size];
+        add(first, index, column);
+        add(second, index, column);
+        return column;
+    }
+
+    // Results for employees no longer in the master list are ignored
+    private static void add(SalaryComputation.PayrollResult[] results, Map<Integer, Integer> index, long[] column) {
+        for (SalaryComputation.PayrollResult result : results) {
+            Integer i = index.get(result.getEmployeeNumber());
+            if (i != null) {
+                column[i] += result.getBasicPay();
+            }
+        }
+    }
+
+    private static int[] employeeNumbers(List<Employee> employees) {
+        int[] empNos = new int[employees.size()];
+        for (int i = 0; i < empNos.length; i++) {
+            empNos[i] = employees.get(i).getEmployeeNumber();
+        }
+        return empNos;
+    }
+
+    private static Summary summarize(int year, Source source, int[] empNos, long[] basicPay, int[] monthMasks,
+                                     int monthsCovered) {
+        Entitlement[] entitlements = new Entitlement[empNos.length];
+        IntStream.range(0, empNos.length).parallel().forEach(i ->
+            entitlements[i] = new Entitlement(empNos[i], basicPay[i], monthMasks[i], monthsCovered,
+                Money.divide(Math.max(0, basicPay[i]), MONTHS, ROUNDING)));
+        return new Summary(year, source, entitlements, monthsCovered);
+    }
+
+    /**
+     * Writes a summary as CSV, one row per employee in the summary's order, through a temporary file that is
+     * moved into place once complete.
+     *
+     * @param employees The employees the summary was computed for, for their names.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void export(Summary summary, List<Employee> employees, Path file) throws IOException {
+        Map<Integer, Employee> byNumber = new HashMap<>(employees.size() * 2);
+        for (Employee employee : employees) {
+            byNumber.put(employee.getEmployeeNumber(), employee);
+        }
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write("Employee #,Last Name,First Name,Months Worked,Basic Pay,13th Month Pay,Taxable Excess,Pro-Rated\n");
+                for (Entitlement entitlement : summary.getEntitlements()) {
+                    Employee employee = byNumber.get(entitlement.getEmployeeNumber());
+                    writer.write(entitlement.getEmployeeNumber() + ","
+                        + csv(employee == null ? "" : employee.getLastName()) + ","
+                        + csv(employee == null ? "" : employee.getFirstName()) + ","
+                        + entitlement.getMonthsWorked() + ","
+                        + Money.toPlainString(entitlement.getBasicPay()) + ","
+                        + Money.toPlainString(entitlement.getAmount()) + ","
+                        + Money.toPlainString(entitlement.getTaxableExcess()) + ","
+                        + (entitlement.isProRated() ? "Yes" : "No") + "\n");
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    // Quotes a value only if it contains a comma, quote or line break, like the other CSV writers
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + value.replace("\"", "\"\"") + '"';
+            }
+        }
+        return value;
+    }
+
+    /**
+     * One employee's 13th-month pay.
+     */
+    public static class Entitlement {
+
+        private final int employeeNumber;
+        private final long basicPay;
+        private final int workedMonthMask;
+        private final int monthsCovered;
+        private final long amount;
+
+        Entitlement(int employeeNumber, long basicPay, int workedMonthMask, int monthsCovered, long amount) {
+            this.employeeNumber = employeeNumber;
+            this.basicPay = basicPay;
+            this.workedMonthMask = workedMonthMask;
+            this.monthsCovered = monthsCovered;
+            this.amount = amount;
+        }
+
+        public int getEmployeeNumber() { return employeeNumber; }
+        /** Basic pay earned in the year, in centavos. */
+        public long getBasicPay() { return basicPay; }
+        /** Bit (month - 1) is set for each month the employee worked. */
+        public int getWorkedMonthMask() { return workedMonthMask; }
+        public int getMonthsWorked() { return Integer.bitCount(workedMonthMask); }
+        /** The 13th-month pay, in centavos. */
+        public long getAmount() { return amount; }
+        /** The part above the tax-exempt ceiling, before counting any other benefits against it. */
+        public long getTaxableExcess() { return Math.max(0, amount - TAX_EXEMPT_CEILING); }
+
+        /**
+         * Whether the employee worked fewer of the months whose payroll was found than the summary covers, e.g. a
+         * mid-year hire. A year with only some months finalized is not by itself a reason to pro-rate.
+         */
+        public boolean isProRated() { return Integer.bitCount(workedMonthMask & monthsCovered) < Integer.bitCount(monthsCovered); }
+    }
+
+    /**
+     * The batch's entitlements, in employee-list order, with totals.
+     */
+    public static class Summary {
+
+        private final int year;
+        private final Source source;
+        private final List<Entitlement> entitlements;
+        private final int monthsCovered;
+        private final long totalAmount;
+
+        Summary(int year, Source source, Entitlement[] entitlements, int monthsCovered) {
+            this.year = year;
+            this.source = source;
+            this.entitlements = Collections.unmodifiableList(Arrays.asList(entitlements));
+            this.monthsCovered = monthsCovered;
+            long total = 0;
+            for (Entitlement entitlement : entitlements) {
+                total += entitlement.getAmount();
+            }
+            this.totalAmount = total;
+        }
+
+        public int getYear() { return year; }
+        public Source getSource() { return source; }
+        public List<Entitlement> getEntitlements() { return entitlements; }
+        /** Bit (month - 1) is set for each month whose pay was found; a month missing here was left out. */
+        public int getMonthsCovered() { return monthsCovered; }
+        /** Sum of every entitlement, in centavos. */
+        public long getTotalAmount() { return totalAmount; }
+    }
+}
@@ -0,0 +1,195 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * The SIMD half of {@link PayrollKernel}, kept in its own class so that nothing else links against the
+ * incubator module. Each step handles as many employees as the CPU's preferred vector holds `long`s.
+ * Products are exact `long` multiplies. The vector API has no fast integer division, and its long/double
+ * conversions are not compiled to single instructions, so the divisions by 60, 6000 and 10000 reinterpret
+ * the bits instead: a non-negative integer below 2^52 OR-ed into the exponent of 2^52 *is* that double
+ * plus 2^52, and the reverse turns a quotient back into a `long`. {@link #inExactRange} checks up front that
+ * every product stays below 2^52. Bracket lookups test every bracket and blend, instead of searching, so
+ * all lanes follow the same path.
+ * The work is split into passes that each read and write whole columns. A vector passed to or returned from
+ * a method the JIT does not inline is boxed, which costs more than the arithmetic, so no pass hands vectors
+ * across a call boundary other than the small helpers that always inline.
+ */
+final class VectorPayrollKernel {
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final double TWO_52 = 0x1p52;
+    private static final long TWO_52_BITS = Double.doubleToRawLongBits(TWO_52);
+
+    // Input bounds under which every intermediate product stays below 2^52
+    private static final long MAX_RATE = 1L << 24;          // Hourly rate, centavos
+    private static final long MAX_MINUTES = 1L << 17;       // Minutes in one column for the period
+    private static final long MAX_SALARY = 1L << 38;        // Monthly basic salary, centavos
+    private static final long MAX_BASIS_POINTS = 10_000;    // Any table rate, 100%
+
+    private VectorPayrollKernel() {
+    }
+
+    static int lanes() {
+        return LONGS.length();
+    }
+
+    /**
+     * Whether every input is non-negative and small enough for the `double` divisions to be exact.
+     */
+    static boolean inExactRange(PayrollKernel.Columns c, StatutoryRates.Schedule rates) {
+        if (!ratesInRange(rates.philHealth) || !ratesInRange(rates.pagIbig) || !ratesInRange(rates.withholdingTax)) {
+            return false;
+        }
+        for (int i = 0; i < c.size; i++) {
+            // Unsigned comparison rejects negatives too
+            if (Long.compareUnsigned(c.hourlyRates[i], MAX_RATE) > 0
+                    || Long.compareUnsigned(c.monthlySalaries[i], MAX_SALARY) > 0
+                    || Long.compareUnsigned(c.workedMinutes[i], MAX_MINUTES) > 0
+                    || Long.compareUnsigned(c.overtimeMinutes[i], MAX_MINUTES) > 0
+                    || Long.compareUnsigned(c.regularHolidayMinutes[i], MAX_MINUTES) > 0
+                    || Long.compareUnsigned(c.specialHolidayMinutes[i], MAX_MINUTES) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean ratesInRange(StatutoryRates.RateTable table) {
+        for (int b = 0; b < table.size(); b++) {
+            if (Long.compareUnsigned(table.rateBasisPoints(b), MAX_BASIS_POINTS) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Computes whole vectors from index 0 and returns the first index left for the scalar kernel.
+     */
+    static int compute(PayrollKernel.Columns c, SssContributionTable sssTable, StatutoryRates.Schedule rates, int cutoff) {
+        int bound = LONGS.loopBound(c.size);
+        payLines(c, bound);
+        sss(sssTable, c.monthlySalaries, c.sss, cutoff, bound);
+        bracketTable(rates.philHealth, c.monthlySalaries, c.philHealth, cutoff, bound);
+        bracketTable(rates.pagIbig, c.monthlySalaries, c.pagIbig, cutoff, bound);
+        taxAndTotals(c, rates.withholdingTax, cutoff, bound);
+        return bound;
+    }
+
+    // Basic, overtime, holiday and gross pay
+    private static void payLines(PayrollKernel.Columns c, int bound) {
+        for (int i = 0; i < bound; i += LONGS.length()) {
+            LongVector rate = LongVector.fromArray(LONGS, c.hourlyRates, i);
+            LongVector overtime = LongVector.fromArray(LONGS, c.overtimeMinutes, i);
+            LongVector regular = LongVector.fromArray(LONGS, c.workedMinutes, i).sub(overtime).max(0);
+
+            LongVector basicPay = divideHalfUp(rate.mul(regular), 60);
+            LongVector overtimePay = divideHalfUp(rate.mul(overtime).mul(SalaryComputation.OVERTIME_PERCENT), 60 * 100);
+            LongVector holidayPay = divideHalfUp(rate.mul(LongVector.fromArray(LONGS, c.regularHolidayMinutes, i))
+                    .mul(SalaryComputation.REGULAR_HOLIDAY_PREMIUM_PERCENT), 60 * 100)
+                .add(divideHalfUp(rate.mul(LongVector.fromArray(LONGS, c.specialHolidayMinutes, i))
+                    .mul(SalaryComputation.SPECIAL_HOLIDAY_PREMIUM_PERCENT), 60 * 100));
+            basicPay.intoArray(c.basicPay, i);
+            overtimePay.intoArray(c.overtimePay, i);
+            holidayPay.intoArray(c.holidayPay, i);
+            basicPay.add(overtimePay).add(holidayPay).intoArray(c.grossPay, i);
+        }
+    }
+
+    // Same as SssContributionTable.lookup: the last bracket whose lower bound is at or below the salary
+    private static void sss(SssContributionTable table, long[] salaries, long[] out, int cutoff, int bound) {
+        int brackets = table.size();
+        long[] lower = new long[brackets];
+        long[] contribution = new long[brackets];
+        for (int b = 0; b < brackets; b++) {
+            lower[b] = table.lowerBound(b);
+            contribution[b] = table.contribution(b);
+        }
+        for (int i = 0; i < bound; i += LONGS.length()) {
+            LongVector salary = LongVector.fromArray(LONGS, salaries, i);
+            LongVector amount = LongVector.broadcast(LONGS, brackets == 0 ? 0 : contribution[0]);
+            for (int b = 1; b < brackets; b++) {
+                amount = amount.blend(contribution[b], salary.compare(VectorOperators.GE, lower[b]));
+            }
+            share(amount, cutoff).intoArray(out, i);
+        }
+    }
+
+    // Same as RateTable.amount: the last bracket whose lower bound is below the base, or bracket 0
+    private static void bracketTable(StatutoryRates.RateTable table, long[] bases, long[] out, int cutoff, int bound) {
+        int brackets = table.size();
+        long[] lowerBound = new long[brackets];
+        long[] fixedAmount = new long[brackets];
+        long[] basisPoints = new long[brackets];
+        long[] baseFloor = new long[brackets];
+        long[] baseCeiling = new long[brackets];
+        for (int b = 0; b < brackets; b++) {
+            lowerBound[b] = table.lowerBound(b);
+            fixedAmount[b] = table.fixedAmount(b);
+            basisPoints[b] = table.rateBasisPoints(b);
+            baseFloor[b] = table.baseFloor(b);
+            baseCeiling[b] = table.baseCeiling(b);
+        }
+        for (int i = 0; i < bound; i += LONGS.length()) {
+            LongVector x = LongVector.fromArray(LONGS, bases, i).max(0);
+            LongVector lower = LongVector.broadcast(LONGS, lowerBound[0]);
+            LongVector fixed = LongVector.broadcast(LONGS, fixedAmount[0]);
+            LongVector rate = LongVector.broadcast(LONGS, basisPoints[0]);
+            LongVector floor = LongVector.broadcast(LONGS, baseFloor[0]);
+            LongVector ceiling = LongVector.broadcast(LONGS, baseCeiling[0]);
+            for (int b = 1; b < brackets; b++) {
+                VectorMask<Long> above = x.compare(VectorOperators.GT, lowerBound[b]);
+                lower = lower.blend(lowerBound[b], above);
+                fixed = fixed.blend(fixedAmount[b], above);
+                rate = rate.blend(basisPoints[b], above);
+                floor = floor.blend(baseFloor[b], above);
+                ceiling = ceiling.blend(baseCeiling[b], above);
+            }
+            LongVector portion = x.max(floor).min(ceiling).sub(lower).max(0);
+            share(fixed.add(divideHalfUp(portion.mul(rate), 10_000)), cutoff).intoArray(out, i);
+        }
+    }
+
+    // Withholding tax on gross less contributions (doubled for a cutoff, as the table is monthly), then totals and net pay
+    private static void taxAndTotals(PayrollKernel.Columns c, StatutoryRates.RateTable taxTable, int cutoff, int bound) {
+        for (int i = 0; i < bound; i += LONGS.length()) {
+            LongVector contributions = LongVector.fromArray(LONGS, c.sss, i)
+                .add(LongVector.fromArray(LONGS, c.philHealth, i))
+                .add(LongVector.fromArray(LONGS, c.pagIbig, i));
+            LongVector taxable = LongVector.fromArray(LONGS, c.grossPay, i).sub(contributions);
+            (cutoff == 0 ? taxable : taxable.lanewise(VectorOperators.LSHL, 1)).intoArray(c.withholdingTax, i);
+        }
+        bracketTable(taxTable, c.withholdingTax, c.withholdingTax, cutoff, bound);
+        for (int i = 0; i < bound; i += LONGS.length()) {
+            LongVector totalDeductions = LongVector.fromArray(LONGS, c.sss, i)
+                .add(LongVector.fromArray(LONGS, c.philHealth, i))
+                .add(LongVector.fromArray(LONGS, c.pagIbig, i))
+                .add(LongVector.fromArray(LONGS, c.withholdingTax, i));
+            LongVector benefits = share(LongVector.fromArray(LONGS, c.allowances, i), cutoff);
+            totalDeductions.intoArray(c.totalDeductions, i);
+            benefits.intoArray(c.benefits, i);
+            LongVector.fromArray(LONGS, c.grossPay, i).add(benefits).sub(totalDeductions).intoArray(c.netPay, i);
+        }
+    }
+
+    // Money.divide(dividend, divisor, HALF_UP) for 0 <= dividend < 2^52 and an even divisor: floor((dividend + divisor / 2) / divisor).
+    // The double quotient is within half an ulp of the true one, which is at least 1/divisor from the next integer,
+    // so flooring it is exact.
+    private static LongVector divideHalfUp(LongVector dividend, long divisor) {
+        DoubleVector quotient = dividend.add(divisor / 2).or(TWO_52_BITS).viewAsFloatingLanes().sub(TWO_52).div(divisor);
+        DoubleVector shifted = quotient.add(TWO_52); // Rounds to the nearest integer
+        LongVector nearest = shifted.viewAsIntegralLanes().sub(TWO_52_BITS);
+        return nearest.sub(1, shifted.sub(TWO_52).compare(VectorOperators.GT, quotient).cast(LONGS));
+    }
+
+    // SalaryComputation.cutoffShare per lane; an arithmetic shift is a floor division by 2
+    private static LongVector share(LongVector monthly, int cutoff) {
+        if (cutoff == 0) {
+            return monthly;
+        }
+        LongVector firstHalf = monthly.lanewise(VectorOperators.ASHR, 1);
+        return cutoff == 1 ? firstHalf : monthly.sub(firstHalf);
+    }
+}
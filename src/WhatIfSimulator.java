@@ -0,0 +1,168 @@
+import java.awt.BorderLayout;
+import java.awt.FlowLayout;
+import java.awt.GridLayout;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JComboBox;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.SwingWorker;
+import javax.swing.table.DefaultTableModel;
+
+/**
+ * What-if payroll screen: enter a raise, allowance changes or a statutory table date, and see how the
+ * month's payroll totals would change. Runs {@link PayrollSimulation} off the Event Dispatch Thread
+ * and never writes to the employee or attendance files.
+ */
+public class WhatIfSimulator extends javax.swing.JFrame {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+    private static final String[] COLUMNS = {"", "Current", "Simulated", "Change"};
+
+    private final com.toedter.calendar.JMonthChooser monthSelect = new com.toedter.calendar.JMonthChooser();
+    private final com.toedter.calendar.JYearChooser yearSelect = new com.toedter.calendar.JYearChooser();
+    private final JComboBox<String> statusSelect = new JComboBox<>(new String[]{"All", "Regular", "Probationary"});
+    private final JTextField raiseField = new JTextField("0");
+    private final JTextField riceField = new JTextField("0");
+    private final JTextField phoneField = new JTextField("0");
+    private final JTextField clothingField = new JTextField("0");
+    private final JTextField ratesAsOfField = new JTextField();
+    private final JButton simulateButton = new JButton("Simulate");
+    private final JLabel statusLabel = new JLabel(" ");
+    private final DefaultTableModel resultModel = new DefaultTableModel(COLUMNS, 0) {
+        @Override
+        public boolean isCellEditable(int row, int column) {
+            return false;
+        }
+    };
+
+    private List<Employee> employees;
+
+    public WhatIfSimulator() {
+        initComponents();
+    }
+
+    // Built by hand rather than in the form designer; the layout is a simple form over a results table
+    private void initComponents() {
+        setDefaultCloseOperation(javax.swing.WindowConstants.DISPOSE_ON_CLOSE);
+        setTitle("MotorPH What-If Payroll");
+
+        JPanel form = new JPanel(new GridLayout(0, 2, 8, 6));
+        form.setBorder(BorderFactory.createTitledBorder("Scenario"));
+        JPanel period = new JPanel(new FlowLayout(FlowLayout.LEFT, 0, 0));
+        period.add(monthSelect);
+        period.add(yearSelect);
+        form.add(new JLabel("Pay period"));
+        form.add(period);
+        form.add(new JLabel("Employees"));
+        form.add(statusSelect);
+        form.add(new JLabel("Raise (%)"));
+        form.add(raiseField);
+        form.add(new JLabel("Rice subsidy change"));
+        form.add(riceField);
+        form.add(new JLabel("Phone allowance change"));
+        form.add(phoneField);
+        form.add(new JLabel("Clothing allowance change"));
+        form.add(clothingField);
+        form.add(new JLabel("Statutory rates as of (MM/dd/yyyy, blank = period)"));
+        form.add(ratesAsOfField);
+
+        JPanel buttons = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        JButton closeButton = new JButton("Close");
+        closeButton.addActionListener(evt -> dispose());
+        simulateButton.addActionListener(evt -> simulateButtonActionPerformed());
+        buttons.add(statusLabel);
+        buttons.add(simulateButton);
+        buttons.add(closeButton);
+
+        JPanel top = new JPanel(new BorderLayout());
+        top.add(form, BorderLayout.CENTER);
+        top.add(buttons, BorderLayout.SOUTH);
+
+        getContentPane().setLayout(new BorderLayout());
+        getContentPane().add(top, BorderLayout.NORTH);
+        getContentPane().add(new JScrollPane(new JTable(resultModel)), BorderLayout.CENTER);
+        setSize(620, 520);
+        setLocationRelativeTo(null);
+    }
+
+    private void simulateButtonActionPerformed() {
+        PayrollSimulation.Scenario scenario = new PayrollSimulation.Scenario();
+        try {
+            // Percent to basis points and pesos to centavos, both exact
+            scenario.setRaiseBasisPoints(Money.parse(raiseField.getText()));
+            scenario.setRiceSubsidyDelta(Money.parse(riceField.getText()));
+            scenario.setPhoneAllowanceDelta(Money.parse(phoneField.getText()));
+            scenario.setClothingAllowanceDelta(Money.parse(clothingField.getText()));
+            String asOf = ratesAsOfField.getText().trim();
+            scenario.setRatesAsOf(asOf.isEmpty() ? null : LocalDate.parse(asOf, DATE_FORMAT));
+        } catch (NumberFormatException | ArithmeticException | DateTimeParseException e) {
+            JOptionPane.showMessageDialog(this, "Invalid input: " + e.getMessage(), "Input Error", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        String status = (String) statusSelect.getSelectedItem();
+        scenario.setStatusFilter("All".equals(status) ? null : status);
+        // JMonthChooser months are 0-based
+        YearMonth yearMonth = YearMonth.of(yearSelect.getYear(), monthSelect.getMonth() + 1);
+
+        simulateButton.setEnabled(false);
+        statusLabel.setText("Simulating...");
+        new SwingWorker<PayrollSimulation.Result, Void>() {
+            @Override
+            protected PayrollSimulation.Result doInBackground() {
+                if (employees == null) {
+                    employees = EmployeeFileHandler.loadEmployees();
+                }
+                return PayrollSimulation.simulate(employees, yearMonth, scenario);
+            }
+
+            @Override
+            protected void done() {
+                simulateButton.setEnabled(true);
+                try {
+                    showResult(get());
+                } catch (Exception e) {
+                    statusLabel.setText(" ");
+                    JOptionPane.showMessageDialog(WhatIfSimulator.this, "Simulation failed: " + e.getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    private void showResult(PayrollSimulation.Result result) {
+        PayrollSimulation.Totals before = result.getBaseline();
+        PayrollSimulation.Totals after = result.getSimulated();
+        resultModel.setRowCount(0);
+        addRow("Gross pay", before.getGrossPay(), after.getGrossPay());
+        addRow("Allowances", before.getBenefits(), after.getBenefits());
+        addRow("Payroll cost", before.getPayrollCost(), after.getPayrollCost());
+        addRow("SSS", before.getSss(), after.getSss());
+        addRow("PhilHealth", before.getPhilHealth(), after.getPhilHealth());
+        addRow("Pag-IBIG", before.getPagIbig(), after.getPagIbig());
+        addRow("Withholding tax", before.getWithholdingTax(), after.getWithholdingTax());
+        addRow("Total deductions", before.getTotalDeductions(), after.getTotalDeductions());
+        addRow("Net pay", before.getNetPay(), after.getNetPay());
+        statusLabel.setText(String.format("%,d employees in %d ms", result.getAffectedEmployees(),
+            result.getElapsedNanos() / 1_000_000));
+    }
+
+    private void addRow(String label, long before, long after) {
+        resultModel.addRow(new Object[]{label, Money.format(before), Money.format(after), Money.format(after - before)});
+    }
+
+    /**
+     * @param args the command line arguments
+     */
+    public static void main(String args[]) {
+        java.awt.EventQueue.invokeLater(() -> new WhatIfSimulator().setVisible(true));
+    }
+}
@@ -0,0 +1,170 @@
+import com.opencsv.CSVReader;
+import com.opencsv.exceptions.CsvValidationException;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * `WorkCalendar` answers workday and holiday questions from per-month bitsets.
+ * Each `YearMonth` is computed once into four `long` masks (bit 0 = day 1) for workdays,
+ * rest days (Sundays), regular holidays and special non-working holidays, so counting
+ * workdays in any range is a mask and a `Long.bitCount` instead of a day-by-day loop.
+ * Holidays are read from `holidays.csv` on first use and again after {@link #getVersion()} sees the file change.
+ */
+public class WorkCalendar {
+    private static final String HOLIDAY_PATH = "src/data/holidays.csv";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MM/dd/yyyy");
+
+    private static final Map<YearMonth, MonthMask> MONTHS = new ConcurrentHashMap<>();
+    private static volatile Map<YearMonth, long[]> holidays; // YearMonth -> {regular mask, special mask}
+    private static long holidaysModified;
+
+    /**
+     * Precomputed day masks for one month.
+     */
+    public static final class MonthMask {
+        public final long workdays;         // Scheduled working days, i.e. not rest days and not holidays
+        public final long restDays;         // Sundays
+        public final long regularHolidays;
+        public final long specialHolidays;  // Special non-working days
+        public final int length;
+
+        MonthMask(long workdays, long restDays, long regularHolidays, long specialHolidays, int length) {
+            this.workdays = workdays;
+            this.restDays = restDays;
+            this.regularHolidays = regularHolidays;
+            this.specialHolidays = specialHolidays;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Changes whenever `holidays.csv` is modified. A call that sees a new version drops the loaded holidays and
+     * every computed month, so lookups after it use the edited calendar; lookups themselves never check the file.
+     */
+    public static synchronized long getVersion() {
+        long modified = new File(HOLIDAY_PATH).lastModified();
+        if (holidays != null && modified != holidaysModified) {
+            holidays = null;
+            MONTHS.clear();
+        }
+        return modified;
+    }
+
+    /**
+     * Returns the masks for a month, computing them on first use.
+     */
+    public static MonthMask month(YearMonth yearMonth) {
+        return MONTHS.computeIfAbsent(yearMonth, WorkCalendar::computeMonth);
+    }
+
+    /**
+     * Number of scheduled working days in a month (excludes Sundays and holidays).
+     */
+    public static int workdayCount(YearMonth yearMonth) {
+        return Long.bitCount(month(yearMonth).workdays);
+    }
+
+    /**
+     * Number of scheduled working days between two dates, both inclusive.
+     */
+    public static int workdayCount(LocalDate start, LocalDate end) {
+        int count = 0;
+        for (YearMonth ym = YearMonth.from(start); !ym.isAfter(YearMonth.from(end)); ym = ym.plusMonths(1)) {
+            int fromDay = ym.equals(YearMonth.from(start)) ? start.getDayOfMonth() : 1;
+            int toDay = ym.equals(YearMonth.from(end)) ? end.getDayOfMonth() : ym.lengthOfMonth();
+            count += Long.bitCount(month(ym).workdays & dayRange(fromDay, toDay));
+        }
+        return count;
+    }
+
+    public static boolean isWorkday(LocalDate date) {
+        return isSet(month(YearMonth.from(date)).workdays, date);
+    }
+
+    public static boolean isRestDay(LocalDate date) {
+        return isSet(month(YearMonth.from(date)).restDays, date);
+    }
+
+    public static boolean isRegularHoliday(LocalDate date) {
+        return isSet(month(YearMonth.from(date)).regularHolidays, date);
+    }
+
+    public static boolean isSpecialHoliday(LocalDate date) {
+        return isSet(month(YearMonth.from(date)).specialHolidays, date);
+    }
+
+    /**
+     * Bits for days `fromDay`..`toDay` (1-based, inclusive).
+     */
+    public static long dayRange(int fromDay, int toDay) {
+        if (toDay < fromDay) {
+            return 0L;
+        }
+        long upTo = toDay >= 64 ? -1L : (1L << toDay) - 1;
+        return upTo & -(1L << (fromDay - 1));
+    }
+
+    private static boolean isSet(long mask, LocalDate date) {
+        return (mask & (1L << (date.getDayOfMonth() - 1))) != 0;
+    }
+
+    private static MonthMask computeMonth(YearMonth yearMonth) {
+        int length = yearMonth.lengthOfMonth();
+        // Bit of the first Sunday, then every 7th day after it
+        int firstSunday = (DayOfWeek.SUNDAY.getValue() - yearMonth.atDay(1).getDayOfWeek().getValue() + 7) % 7;
+        long restDays = 0L;
+        for (int day = firstSunday; day < length; day += 7) {
+            restDays |= 1L << day;
+        }
+
+        long[] holidayMasks = holidays().getOrDefault(yearMonth, new long[2]);
+        long allDays = dayRange(1, length);
+        long workdays = allDays & ~restDays & ~holidayMasks[0] & ~holidayMasks[1];
+        return new MonthMask(workdays, restDays, holidayMasks[0], holidayMasks[1], length);
+    }
+
+    // Loads holidays.csv once: Date (MM/dd/yyyy), Type (Regular or Special), Holiday name.
+    private static Map<YearMonth, long[]> holidays() {
+        Map<YearMonth, long[]> loaded = holidays;
+        if (loaded != null) {
+            return loaded;
+        }
+        synchronized (WorkCalendar.class) {
+            if (holidays != null) {
+                return holidays;
+            }
+            loaded = new HashMap<>();
+            holidaysModified = new File(HOLIDAY_PATH).lastModified();
+            try (CSVReader reader = new CSVReader(new FileReader(HOLIDAY_PATH))) {
+                reader.skip(1); // Skip header row
+                String[] line;
+                while ((line = reader.readNext()) != null) {
+                    if (line.length < 2) {
+                        continue;
+                    }
+                    try {
+                        LocalDate date = LocalDate.parse(line[0].trim(), DATE_FORMAT);
+                        long[] masks = loaded.computeIfAbsent(YearMonth.from(date), ym -> new long[2]);
+                        int type = line[1].trim().equalsIgnoreCase("Regular") ? 0 : 1;
+                        masks[type] |= 1L << (date.getDayOfMonth() - 1);
+                    } catch (DateTimeParseException e) {
+                        System.err.println("Skipping invalid holiday entry: " + String.join(",", line));
+                    }
+                }
+            } catch (IOException | CsvValidationException e) {
+                System.err.println("Failed to read holiday calendar: " + e.getMessage());
+            }
+            holidays = loaded;
+            return loaded;
+        }
+    }
+}
@@ -0,0 +1,553 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * `YtdLedger` keeps each employee's year-to-date payroll totals (basic, gross, taxable income, SSS,
+ * PhilHealth, Pag-IBIG, withholding tax and net pay) for one calendar year, so annualized tax, 13th-month
+ * pay and BIR 2316 can read them in O(1) instead of re-running every period of the year.
+ * Totals live in primitive arrays behind an open-addressing index on employee number and are saved as one
+ * compact binary file per year (`src/data/ytd/ytd-yyyy.bin`). A finalized run is posted per pay period:
+ * the file records which months and cutoffs have been posted, and a month cannot be posted on top of its
+ * cutoffs (or the reverse). The results of each posted period are kept next to the ledger
+ * (`ytd-yyyy-MM.posted`, or `ytd-yyyy-MM-c.posted` for a cutoff) with a checksum in the ledger header.
+ * Posting a period again with the same results is a no-op; with different results, e.g. from a corrected
+ * re-run, the earlier posting is taken back out of the totals and replaced. Each save writes a temporary
+ * file, forces it and moves it over the old one, so a crash leaves either the previous or the new totals,
+ * never half.
+ */
+public class YtdLedger {
+    static final String YTD_DIR = "src/data/ytd";
+
+    // Totals per employee, at slot * FIELDS + field
+    public static final int BASIC_PAY = 0;
+    public static final int GROSS_PAY = 1;
+    public static final int TAXABLE_INCOME = 2;
+    public static final int SSS = 3;
+    public static final int PHILHEALTH = 4;
+    public static final int PAGIBIG = 5;
+    public static final int WITHHOLDING_TAX = 6;
+    public static final int NET_PAY = 7;
+    static final int FIELDS = 8;
+
+    // File layout: 32-byte header, a checksum per posted-period bit, then one RECORD_SIZE-byte record per slot
+    // (empty slots have employee number 0)
+    private static final int MAGIC = 0x4D505944; // "MPYD"
+    private static final short FORMAT_VERSION = 2;
+    private static final int HEADER_SIZE = 32 + 64 * 8;
+    static final int RECORD_SIZE = 4 * 4 + FIELDS * 8;
+    private static final int MIN_CAPACITY = 64;
+    private static final int MONTH_BITS = 32; // Posted months start at this bit; cutoffs use bits 0-23 (id within the year)
+
+    // Posting file layout: magic, format version, cutoff, month, year, result count, then checkpoint-format records
+    private static final int POSTING_MAGIC = 0x4D505950; // "MPYP"
+    private static final int POSTING_HEADER_SIZE = 16;
+
+    private static final Map<Integer, YtdLedger> LEDGERS = new HashMap<>();
+
+    private final int year;
+    private final Path file;
+    private long posted;         // Bit per posted cutoff (PayPeriod index within the year) and per posted month
+    private long[] postingChecksums = new long[64]; // Per posted bit: checksum of the results posted for it
+    private int size;
+    private int[] keys;          // Employee number per slot, 0 = empty
+    private int[] periodCounts;  // Pay periods posted per employee
+    private int[] monthMasks;    // Bit (month - 1) set when the employee had worked minutes that month
+    private long[] totals;
+
+    private YtdLedger(int year, Path file, int capacity) {
+        this.year = year;
+        this.file = file;
+        allocate(capacity);
+    }
+
+    /**
+     * The ledger for a year, loaded from `src/data/ytd` on first use and shared afterwards.
+     * An unreadable file is reported and treated as empty.
+     */
+    public static synchronized YtdLedger forYear(int year) {
+        return LEDGERS.computeIfAbsent(year, y -> {
+            Path path = Paths.get(YTD_DIR, "ytd-" + y + ".bin");
+            try {
+                return load(path, y);
+            } catch (IOException e) {
+                System.err.println("Error reading YTD ledger " + path + ": " + e.getMessage());
+                return new YtdLedger(y, path, MIN_CAPACITY);
+            }
+        });
+    }
+
+    /**
+     * Loads a ledger file, or returns an empty ledger if it does not exist yet.
+     *
+     * @param file The ledger file.
+     * @param year The calendar year the file must cover.
+     * @return The ledger, saved back to the same file.
+     * @throws IOException if the file cannot be read or belongs to another year or format.
+     */
+    public static YtdLedger load(Path file, int year) throws IOException {
+        if (!Files.exists(file)) {
+            return new YtdLedger(year, file, MIN_CAPACITY);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getShort() != FORMAT_VERSION) {
+            throw new IOException("Not a YTD ledger file: " + file);
+        }
+        buffer.getShort(); // Reserved
+        int fileYear = buffer.getInt();
+        int capacity = buffer.getInt();
+        buffer.getInt();   // Size, recounted below
+        buffer.getInt();   // Reserved
+        long posted = buffer.getLong();
+        long[] checksums = new long[64];
+        for (int i = 0; i < checksums.length; i++) {
+            checksums[i] = buffer.getLong();
+        }
+        if (fileYear != year) {
+            throw new IOException("YTD ledger " + file + " is for " + fileYear + ", not " + year);
+        }
+        if (Integer.bitCount(capacity) != 1 || buffer.remaining() != (long) capacity * RECORD_SIZE) {
+            throw new IOException("Truncated YTD ledger file: " + file);
+        }
+
+        YtdLedger ledger = new YtdLedger(year, file, capacity);
+        ledger.posted = posted;
+        ledger.postingChecksums = checksums;
+        for (int slot = 0; slot < capacity; slot++) {
+            int empNo = buffer.getInt();
+            ledger.periodCounts[slot] = buffer.getInt();
+            ledger.monthMasks[slot] = buffer.getInt();
+            buffer.getInt(); // Reserved
+            for (int f = 0; f < FIELDS; f++) {
+                ledger.totals[slot * FIELDS + f] = buffer.getLong();
+            }
+            if (empNo != 0) {
+                ledger.keys[slot] = empNo;
+                ledger.size++;
+            }
+        }
+        return ledger;
+    }
+
+    /**
+     * Posts a finalized batch run, replacing an earlier posting of its period if the results changed.
+     *
+     * @return Whether the run was posted by this call.
+     * @throws IOException if the ledger cannot be saved; the in-memory totals are then left unchanged.
+     */
+    public boolean post(PayrollBatch.BatchResult run) throws IOException {
+        return post(run.getPeriodStart(), run.getPeriodEnd(), run.getCutoff(), run.getResults());
+    }
+
+    /**
+     * Posts the results of one finalized pay period and saves the ledger. If the period was already posted
+     * with different results, those are reversed first, so the totals reflect only the latest results.
+     *
+     * @param start The first day of the period.
+     * @param end The last day of the period.
+     * @param cutoff 1 or 2 for a semi-monthly cutoff, 0 for a whole month.
+     * @param results One result per employee paid in the period.
+     * @return Whether the ledger changed; false if the period was already posted with the same results.
+     * @throws IllegalArgumentException if the dates are not a whole month or cutoff of this ledger's year,
+     *         or if the month and its cutoffs would both be posted.
+     * @throws IOException if the ledger cannot be saved, or the earlier posting of the period cannot be read
+     *         back; the in-memory totals are then left unchanged.
+     */
+    public synchronized boolean post(LocalDate start, LocalDate end, int cutoff, SalaryComputation.PayrollResult[] results)
+            throws IOException {
+        long bit = periodBit(start, end, cutoff);
+        int index = Long.numberOfTrailingZeros(bit);
+        int month = start.getMonthValue();
+        SalaryComputation.PayrollResult[] sorted = results.clone();
+        Arrays.sort(sorted, Comparator.comparingInt(SalaryComputation.PayrollResult::getEmployeeNumber));
+        ByteBuffer records = encode(sorted);
+        long checksum = checksum(records);
+
+        SalaryComputation.PayrollResult[] previous = null;
+        if ((posted & bit) != 0) {
+            if (postingChecksums[index] == checksum) {
+                return false; // Same results as already posted
+            }
+            previous = readPosting(month, cutoff, postingChecksums[index]);
+        } else {
+            long monthBit = 1L << (MONTH_BITS + month - 1);
+            long cutoffBits = 3L << ((month - 1) * 2);
+            if (bit == monthBit ? (posted & cutoffBits) != 0 : (posted & monthBit) != 0) {
+                throw new IllegalArgumentException("Cannot post " + start + " to " + end
+                    + ": the month is already posted " + (bit == monthBit ? "by cutoff" : "as a whole"));
+            }
+        }
+
+        // Apply to copies so a failed save leaves this ledger as it was
+        YtdLedger next = copy(Math.max(keys.length, tableCapacity(size + sorted.length)));
+        next.posted = posted | bit;
+        next.postingChecksums[index] = checksum;
+        if (previous != null) {
+            // A corrected re-run: take the earlier results back out. The month stays worked for an employee
+            // who worked in the month's other cutoff.
+            int[] workedInOtherCutoff = new int[0];
+            long otherBit = 0;
+            if (cutoff != 0) {
+                PayPeriod period = PayPeriod.containing(start);
+                otherBit = cutoffBit(cutoff == 1 ? period.next() : period.previous());
+            }
+            if ((posted & otherBit) != 0) {
+                workedInOtherCutoff = workedEmployees(readPosting(month, 3 - cutoff,
+                    postingChecksums[Long.numberOfTrailingZeros(otherBit)]));
+            }
+            for (SalaryComputation.PayrollResult r : previous) {
+                next.subtract(r, month, workedInOtherCutoff);
+            }
+        }
+        for (SalaryComputation.PayrollResult r : sorted) {
+            next.add(r, month);
+        }
+        if (previous != null) {
+            next = next.copy(next.keys.length); // Drops employees no longer in any posted period
+        }
+
+        // The period's results go to a temporary file first; the ledger's checksum decides which one is current
+        Path posting = postingPath(month, cutoff);
+        Path temp = posting.resolveSibling(posting.getFileName() + ".tmp");
+        writePosting(temp, month, cutoff, sorted.length, records);
+        next.save();
+        posted = next.posted;
+        postingChecksums = next.postingChecksums;
+        size = next.size;
+        keys = next.keys;
+        periodCounts = next.periodCounts;
+        monthMasks = next.monthMasks;
+        totals = next.totals;
+        Files.move(temp, posting, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return true;
+    }
+
+    /**
+     * Whether a whole month of this ledger's year has been posted.
+     */
+    public synchronized boolean isPosted(YearMonth month) {
+        return month.getYear() == year && (posted & 1L << (MONTH_BITS + month.getMonthValue() - 1)) != 0;
+    }
+
+    /**
+     * Whether a cutoff of this ledger's year has been posted.
+     */
+    public synchronized boolean isPosted(PayPeriod period) {
+        return period.getYearMonth().getYear() == year && (posted & cutoffBit(period)) != 0;
+    }
+
+    public int getYear() { return year; }
+
+    /** Employees with at least one posted period. */
+    public synchronized int size() { return size; }
+
+    public synchronized boolean contains(int empNo) {
+        return slotOf(empNo) >= 0;
+    }
+
+    /**
+     * One year-to-date total in centavos, e.g. `get(empNo, YtdLedger.GROSS_PAY)`; 0 for an employee not in the ledger.
+     */
+    public synchronized long get(int empNo, int field) {
+        int slot = slotOf(empNo);
+        return slot < 0 ? 0 : totals[slot * FIELDS + field];
+    }
+
+    public long getBasicPay(int empNo) { return get(empNo, BASIC_PAY); }
+    public long getGrossPay(int empNo) { return get(empNo, GROSS_PAY); }
+    /** Gross pay less SSS, PhilHealth and Pag-IBIG, as taxed by {@link SalaryComputation}. */
+    public long getTaxableIncome(int empNo) { return get(empNo, TAXABLE_INCOME); }
+    public long getSss(int empNo) { return get(empNo, SSS); }
+    public long getPhilHealth(int empNo) { return get(empNo, PHILHEALTH); }
+    public long getPagIbig(int empNo) { return get(empNo, PAGIBIG); }
+    public long getWithholdingTax(int empNo) { return get(empNo, WITHHOLDING_TAX); }
+    public long getNetPay(int empNo) { return get(empNo, NET_PAY); }
+
+    /** Pay periods (months or cutoffs) posted for the employee. */
+    public synchronized int getPeriodsPosted(int empNo) {
+        int slot = slotOf(empNo);
+        return slot < 0 ? 0 : periodCounts[slot];
+    }
+
+    /** Bit (month - 1) is set for each month in which the employee had worked hours. */
+    public synchronized int getWorkedMonthMask(int empNo) {
+        int slot = slotOf(empNo);
+        return slot < 0 ? 0 : monthMasks[slot];
+    }
+
+    public int getMonthsWorked(int empNo) {
+        return Integer.bitCount(getWorkedMonthMask(empNo));
+    }
+
+    /**
+     * Copies one total and the worked-month mask for many employees under a single lock, for callers that
+     * then work on them in parallel. Employees not in the ledger get 0 for both.
+     */
+    synchronized void read(int[] empNos, int field, long[] totalsOut, int[] monthMasksOut) {
+        for (int i = 0; i < empNos.length; i++) {
+            int slot = slotOf(empNos[i]);
+            totalsOut[i] = slot < 0 ? 0 : totals[slot * FIELDS + field];
+            monthMasksOut[i] = slot < 0 ? 0 : monthMasks[slot];
+        }
+    }
+
+    // The posted-period bit for a whole month or a cutoff, after checking the dates really are one
+    private long periodBit(LocalDate start, LocalDate end, int cutoff) {
+        if (start.getYear() != year) {
+            throw new IllegalArgumentException("Period " + start + " is not in " + year);
+        }
+        if (cutoff == 0) {
+            if (start.getDayOfMonth() != 1 || !end.equals(start.withDayOfMonth(start.lengthOfMonth()))) {
+                throw new IllegalArgumentException("Not a whole month: " + start + " to " + end);
+            }
+            return 1L << (MONTH_BITS + start.getMonthValue() - 1);
+        }
+        PayPeriod period = PayPeriod.containing(start);
+        if (period.getCutoff() != cutoff || !period.getStart().equals(start) || !period.getEnd().equals(end)) {
+            throw new IllegalArgumentException("Not a pay period cutoff: " + start + " to " + end);
+        }
+        return cutoffBit(period);
+    }
+
+    // A cutoff's bit is its id counted from the first cutoff of the year
+    private long cutoffBit(PayPeriod period) {
+        return 1L << (period.getId() - year * PayPeriod.PERIODS_PER_YEAR);
+    }
+
+    private void add(SalaryComputation.PayrollResult r, int month) {
+        int slot = insertSlot(r.getEmployeeNumber());
+        periodCounts[slot]++;
+        if (r.getMinutesWorked() > 0) {
+            monthMasks[slot] |= 1 << (month - 1);
+        }
+        accumulate(slot, r, 1);
+    }
+
+    // Reverses add(); `workedElsewhere` (sorted) lists employees whose month stays worked through another period
+    private void subtract(SalaryComputation.PayrollResult r, int month, int[] workedElsewhere) {
+        int slot = slotOf(r.getEmployeeNumber());
+        if (slot < 0) {
+            return;
+        }
+        periodCounts[slot]--;
+        if (Arrays.binarySearch(workedElsewhere, r.getEmployeeNumber()) < 0) {
+            monthMasks[slot] &= ~(1 << (month - 1));
+        }
+        accumulate(slot, r, -1);
+    }
+
+    private void accumulate(int slot, SalaryComputation.PayrollResult r, long sign) {
+        int base = slot * FIELDS;
+        totals[base + BASIC_PAY] += sign * r.getBasicPay();
+        totals[base + GROSS_PAY] += sign * r.getGrossPay();
+        totals[base + TAXABLE_INCOME] += sign * (r.getGrossPay() - r.getSss() - r.getPhilHealth() - r.getPagIbig());
+        totals[base + SSS] += sign * r.getSss();
+        totals[base + PHILHEALTH] += sign * r.getPhilHealth();
+        totals[base + PAGIBIG] += sign * r.getPagIbig();
+        totals[base + WITHHOLDING_TAX] += sign * r.getWithholdingTax();
+        totals[base + NET_PAY] += sign * r.getNetPay();
+    }
+
+    // Employee numbers with worked minutes in `results` (sorted by employee number), in order
+    private static int[] workedEmployees(SalaryComputation.PayrollResult[] results) {
+        return Arrays.stream(results)
+            .filter(r -> r.getMinutesWorked() > 0)
+            .mapToInt(SalaryComputation.PayrollResult::getEmployeeNumber)
+            .toArray();
+    }
+
+    // Linear probing over a power-of-two table kept at most half full
+    private int slotOf(int empNo) {
+        int mask = keys.length - 1;
+        for (int slot = hash(empNo) & mask; ; slot = (slot + 1) & mask) {
+            if (keys[slot] == empNo) {
+                return slot;
+            }
+            if (keys[slot] == 0) {
+                return -1;
+            }
+        }
+    }
+
+    private int insertSlot(int empNo) {
+        int mask = keys.length - 1;
+        int slot = hash(empNo) & mask;
+        while (keys[slot] != 0 && keys[slot] != empNo) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == 0) {
+            keys[slot] = empNo;
+            size++;
+        }
+        return slot;
+    }
+
+    private static int hash(int empNo) {
+        int h = empNo * 0x9E3779B9; // Employee numbers are sequential; spread them over the table
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableCapacity(int entries) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < entries * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        periodCounts = new int[capacity];
+        monthMasks = new int[capacity];
+        totals = new long[capacity * FIELDS];
+    }
+
+    // A copy with the given capacity, rehashed, leaving out employees with no posted period
+    private YtdLedger copy(int capacity) {
+        YtdLedger next = new YtdLedger(year, file, capacity);
+        next.posted = posted;
+        next.postingChecksums = postingChecksums.clone();
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] == 0 || periodCounts[slot] == 0) {
+                continue;
+            }
+            int to = next.insertSlot(keys[slot]);
+            next.periodCounts[to] = periodCounts[slot];
+            next.monthMasks[to] = monthMasks[slot];
+            System.arraycopy(totals, slot * FIELDS, next.totals, to * FIELDS, FIELDS);
+        }
+        return next;
+    }
+
+    private void save() throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        int capacity = keys.length;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + capacity * RECORD_SIZE);
+        buffer.putInt(MAGIC);
+        buffer.putShort(FORMAT_VERSION);
+        buffer.putShort((short) 0);
+        buffer.putInt(year);
+        buffer.putInt(capacity);
+        buffer.putInt(size);
+        buffer.putInt(0);
+        buffer.putLong(posted);
+        for (long checksum : postingChecksums) {
+            buffer.putLong(checksum);
+        }
+        for (int slot = 0; slot < capacity; slot++) {
+            buffer.putInt(keys[slot]);
+            buffer.putInt(periodCounts[slot]);
+            buffer.putInt(monthMasks[slot]);
+            buffer.putInt(0);
+            for (int f = 0; f < FIELDS; f++) {
+                buffer.putLong(totals[slot * FIELDS + f]);
+            }
+        }
+        buffer.flip();
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true); // Durable before it replaces the old file
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path postingPath(int month, int cutoff) {
+        return file.resolveSibling(String.format("ytd-%d-%02d%s.posted", year, month, cutoff == 0 ? "" : "-" + cutoff));
+    }
+
+    // Results as checkpoint records, without fingerprints
+    private static ByteBuffer encode(SalaryComputation.PayrollResult[] sorted) {
+        ByteBuffer records = ByteBuffer.allocate(sorted.length * PayrollBatch.RECORD_SIZE);
+        for (SalaryComputation.PayrollResult r : sorted) {
+            PayrollBatch.writeRecord(records, r, 0);
+        }
+        return records.flip();
+    }
+
+    // The first 8 bytes of the records' SHA-256
+    private static long checksum(ByteBuffer records) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update(records.duplicate());
+            return ByteBuffer.wrap(sha.digest()).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required of every Java platform", e);
+        }
+    }
+
+    private void writePosting(Path temp, int month, int cutoff, int count, ByteBuffer records) throws IOException {
+        if (temp.getParent() != null) {
+            Files.createDirectories(temp.getParent());
+        }
+        ByteBuffer header = ByteBuffer.allocate(POSTING_HEADER_SIZE);
+        header.putInt(POSTING_MAGIC);
+        header.putShort(FORMAT_VERSION);
+        header.put((byte) cutoff);
+        header.put((byte) month);
+        header.putInt(year);
+        header.putInt(count);
+        header.flip();
+        ByteBuffer body = records.duplicate();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining() || body.hasRemaining()) {
+                channel.write(new ByteBuffer[]{header, body});
+            }
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Reads back the results posted for a period. A crash between saving the ledger and moving the new posting
+     * into place leaves the current posting in the temporary file; the checksum tells which file is current.
+     */
+    private SalaryComputation.PayrollResult[] readPosting(int month, int cutoff, long expectedChecksum) throws IOException {
+        Path posting = postingPath(month, cutoff);
+        Path temp = posting.resolveSibling(posting.getFileName() + ".tmp");
+        for (Path candidate : new Path[]{posting, temp}) {
+            if (!Files.exists(candidate)) {
+                continue;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(candidate));
+            if (buffer.remaining() < POSTING_HEADER_SIZE || buffer.getInt() != POSTING_MAGIC
+                    || buffer.getShort() != FORMAT_VERSION) {
+                continue;
+            }
+            buffer.getShort(); // Cutoff and month, implied by the file name
+            buffer.getInt();   // Year
+            int count = buffer.getInt();
+            if (buffer.remaining() != (long) count * PayrollBatch.RECORD_SIZE || checksum(buffer) != expectedChecksum) {
+                continue;
+            }
+            SalaryComputation.PayrollResult[] results = new SalaryComputation.PayrollResult[count];
+            for (int i = 0; i < count; i++) {
+                results[i] = PayrollBatch.readRecord(buffer).result;
+            }
+            if (candidate.equals(temp)) {
+                Files.move(temp, posting, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            return results;
+        }
+        throw new IOException("Posted results missing or not matching the YTD ledger: " + posting);
+    }
+}